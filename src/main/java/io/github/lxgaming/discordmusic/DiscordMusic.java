@@ -22,9 +22,14 @@ import io.github.lxgaming.discordmusic.configuration.category.GeneralCategory;
 import io.github.lxgaming.discordmusic.manager.AccountManager;
 import io.github.lxgaming.discordmusic.manager.AudioManager;
 import io.github.lxgaming.discordmusic.manager.CommandManager;
+import io.github.lxgaming.discordmusic.manager.DiscordManager;
+import io.github.lxgaming.discordmusic.manager.LoadManager;
 import io.github.lxgaming.discordmusic.manager.MessageManager;
 import io.github.lxgaming.discordmusic.manager.TaskManager;
+import io.github.lxgaming.discordmusic.task.IdleTask;
+import io.github.lxgaming.discordmusic.task.JournalTask;
 import io.github.lxgaming.discordmusic.task.MessageTask;
+import io.github.lxgaming.discordmusic.task.PrefetchTask;
 import io.github.lxgaming.discordmusic.util.ShutdownHook;
 import io.github.lxgaming.discordmusic.util.Toolbox;
 import org.apache.logging.log4j.LogManager;
@@ -70,11 +75,15 @@ public class DiscordMusic {
         MessageManager.prepare();
         CommandManager.prepare();
         AudioManager.prepare();
+        LoadManager.prepare();
         AccountManager.prepare();
         
         getConfiguration().saveConfiguration();
         
+        TaskManager.schedule(new IdleTask());
+        TaskManager.schedule(new JournalTask());
         TaskManager.schedule(new MessageTask());
+        TaskManager.schedule(new PrefetchTask());
         getLogger().info("{} v{} has loaded", DiscordMusic.NAME, DiscordMusic.VERSION);
     }
     
@@ -83,6 +92,7 @@ public class DiscordMusic {
             return false;
         }
         
+        DiscordManager.invalidatePermissions();
         getConfiguration().saveConfiguration();
         reloadLogger();
         return true;
@@ -16,15 +16,15 @@
 
 package io.github.lxgaming.discordmusic.command;
 
-import com.sedmelluq.discord.lavaplayer.track.AudioTrack;
+import io.github.lxgaming.discordmusic.entity.AudioQueue;
 import io.github.lxgaming.discordmusic.entity.Color;
 import io.github.lxgaming.discordmusic.manager.AudioManager;
+import io.github.lxgaming.discordmusic.manager.LoadManager;
 import io.github.lxgaming.discordmusic.manager.MessageManager;
 import net.dv8tion.jda.api.EmbedBuilder;
 import net.dv8tion.jda.api.entities.Message;
 
 import java.util.List;
-import java.util.concurrent.BlockingQueue;
 
 public class ClearCommand extends Command {
     
@@ -38,19 +38,25 @@ public class ClearCommand extends Command {
     
     @Override
     public void execute(Message message, List<String> arguments) throws Exception {
-        BlockingQueue<AudioTrack> audioQueue = AudioManager.getAudioQueue(message.getGuild());
+        AudioQueue audioQueue = AudioManager.getAudioQueue(message.getGuild());
         if (audioQueue == null) {
             EmbedBuilder embedBuilder = MessageManager.createErrorEmbed("AudioQueue is unavailable");
-            MessageManager.sendTemporaryMessage(message.getChannel(), embedBuilder.build());
+            MessageManager.sendTemporaryErrorMessage(message.getChannel(), embedBuilder.build());
             return;
         }
         
+        // Pending loads would otherwise refill the queue once they resolve
+        int cancelled = LoadManager.cancel(message.getGuild());
+        
         EmbedBuilder embedBuilder = new EmbedBuilder();
         if (!audioQueue.isEmpty()) {
             audioQueue.clear();
             AudioManager.playNext(message.getGuild());
             embedBuilder.setColor(MessageManager.getColor(Color.SUCCESS));
             embedBuilder.setTitle("Queue cleared");
+        } else if (cancelled != 0) {
+            embedBuilder.setColor(MessageManager.getColor(Color.SUCCESS));
+            embedBuilder.setTitle("Pending loads cancelled");
         } else {
             embedBuilder.setColor(MessageManager.getColor(Color.WARNING));
             embedBuilder.setTitle("Nothing queued");
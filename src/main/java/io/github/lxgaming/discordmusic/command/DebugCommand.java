@@ -20,6 +20,7 @@ import io.github.lxgaming.discordmusic.DiscordMusic;
 import io.github.lxgaming.discordmusic.configuration.Config;
 import io.github.lxgaming.discordmusic.configuration.category.GeneralCategory;
 import io.github.lxgaming.discordmusic.entity.Color;
+import io.github.lxgaming.discordmusic.handler.AudioPlayerSendHandler;
 import io.github.lxgaming.discordmusic.manager.MessageManager;
 import io.github.lxgaming.discordmusic.util.StringUtils;
 import io.github.lxgaming.discordmusic.util.Toolbox;
@@ -45,7 +46,7 @@ public class DebugCommand extends Command {
         GeneralCategory generalCategory = DiscordMusic.getInstance().getConfig().map(Config::getGeneralCategory).orElse(null);
         if (generalCategory == null) {
             EmbedBuilder embedBuilder = MessageManager.createErrorEmbed("GeneralCategory is unavailable");
-            MessageManager.sendTemporaryMessage(message.getChannel(), embedBuilder.build());
+            MessageManager.sendTemporaryErrorMessage(message.getChannel(), embedBuilder.build());
             return;
         }
         
@@ -56,7 +57,7 @@ public class DebugCommand extends Command {
                 state = BooleanUtils.toBooleanObject(argument);
                 if (state == null) {
                     EmbedBuilder embedBuilder = MessageManager.createErrorEmbed(String.format("Failed to parse %s as a boolean", Toolbox.escapeMarkdown(argument)));
-                    MessageManager.sendTemporaryMessage(message.getChannel(), embedBuilder.build());
+                    MessageManager.sendTemporaryErrorMessage(message.getChannel(), embedBuilder.build());
                     return;
                 }
             } else {
@@ -66,14 +67,17 @@ public class DebugCommand extends Command {
             state = null;
         }
         
-        if (state != null) {
-            generalCategory.setDebug(state);
-        } else {
-            generalCategory.setDebug(!generalCategory.isDebug());
+        synchronized (DiscordMusic.getInstance().getConfiguration().getLock()) {
+            if (state != null) {
+                generalCategory.setDebug(state);
+            } else {
+                generalCategory.setDebug(!generalCategory.isDebug());
+            }
         }
         
         DiscordMusic.getInstance().getConfiguration().saveConfiguration();
         DiscordMusic.getInstance().reloadLogger();
+        AudioPlayerSendHandler.setAllocationTracking(generalCategory.isDebug());
         
         EmbedBuilder embedBuilder = new EmbedBuilder();
         if (generalCategory.isDebug()) {
@@ -18,6 +18,7 @@ package io.github.lxgaming.discordmusic.command;
 
 import com.google.common.collect.Sets;
 import io.github.lxgaming.discordmusic.entity.Color;
+import io.github.lxgaming.discordmusic.manager.AudioManager;
 import io.github.lxgaming.discordmusic.manager.MessageManager;
 import io.github.lxgaming.discordmusic.util.StringUtils;
 import net.dv8tion.jda.api.EmbedBuilder;
@@ -71,6 +72,7 @@ public class JoinCommand extends Command {
             }
             
             try {
+                AudioManager.register(message.getGuild());
                 message.getGuild().getAudioManager().openAudioConnection(voiceChannel);
                 embedBuilder.setColor(MessageManager.getColor(Color.SUCCESS));
                 embedBuilder.getDescriptionBuilder().setLength(0);
@@ -82,7 +84,7 @@ public class JoinCommand extends Command {
                 embedBuilder.setColor(MessageManager.getColor(Color.ERROR));
                 embedBuilder.setTitle("An error has occurred.");
                 embedBuilder.getDescriptionBuilder().append("```\n").append(StringUtils.defaultIfBlank(ex.getMessage(), "Unknown")).append("\n```");
-                MessageManager.sendTemporaryMessage(message.getChannel(), embedBuilder.build());
+                MessageManager.sendTemporaryErrorMessage(message.getChannel(), embedBuilder.build());
                 return;
             } catch (InsufficientPermissionException ex) {
                 embedBuilder.setTitle("Insufficient permission for " + voiceChannel.getName());
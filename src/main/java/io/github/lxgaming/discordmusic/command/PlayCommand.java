@@ -17,13 +17,11 @@
 package io.github.lxgaming.discordmusic.command;
 
 import io.github.lxgaming.discordmusic.DiscordMusic;
-import io.github.lxgaming.discordmusic.configuration.Config;
-import io.github.lxgaming.discordmusic.configuration.category.GeneralCategory;
+import io.github.lxgaming.discordmusic.configuration.ConfigSnapshot;
 import io.github.lxgaming.discordmusic.entity.AudioTrackData;
 import io.github.lxgaming.discordmusic.entity.Color;
-import io.github.lxgaming.discordmusic.handler.AudioPlayerLoadResultHandler;
-import io.github.lxgaming.discordmusic.manager.AudioManager;
 import io.github.lxgaming.discordmusic.manager.CommandManager;
+import io.github.lxgaming.discordmusic.manager.LoadManager;
 import io.github.lxgaming.discordmusic.manager.MessageManager;
 import io.github.lxgaming.discordmusic.util.StringUtils;
 import io.github.lxgaming.discordmusic.util.Toolbox;
@@ -77,14 +75,15 @@ public class PlayCommand extends Command {
                 continue;
             }
             
-            Set<String> allowedSources = DiscordMusic.getInstance().getConfig().map(Config::getGeneralCategory).map(GeneralCategory::getAllowedSources).orElse(null);
+            ConfigSnapshot snapshot = DiscordMusic.getInstance().getConfiguration().getSnapshot();
+            Set<String> allowedSources = snapshot != null ? snapshot.getAllowedSources() : null;
             if (allowedSources == null || !allowedSources.contains(url.getHost())) {
                 embedBuilder.getDescriptionBuilder().append("**Forbidden:** ").append(string).append("\n");
                 continue;
             }
             
             embedBuilder.getDescriptionBuilder().append("**Processing**: ").append(string).append("\n");
-            AudioManager.AUDIO_PLAYER_MANAGER.loadItem(string, new AudioPlayerLoadResultHandler(AudioTrackData.of(message)));
+            LoadManager.load(string, AudioTrackData.of(message));
         }
         
         MessageManager.sendTemporaryMessage(message.getChannel(), embedBuilder.build());
@@ -16,6 +16,7 @@
 
 package io.github.lxgaming.discordmusic.command;
 
+import com.sedmelluq.discord.lavaplayer.player.AudioPlayer;
 import com.sedmelluq.discord.lavaplayer.track.AudioTrack;
 import io.github.lxgaming.discordmusic.entity.Color;
 import io.github.lxgaming.discordmusic.manager.AudioManager;
@@ -43,7 +44,8 @@ public class PlayingCommand extends Command {
     public void execute(Message message, List<String> arguments) throws Exception {
         EmbedBuilder embedBuilder = new EmbedBuilder();
         
-        AudioTrack audioTrack = AudioManager.getAudioPlayer(message.getGuild()).getPlayingTrack();
+        AudioPlayer audioPlayer = AudioManager.getAudioPlayer(message.getGuild());
+        AudioTrack audioTrack = audioPlayer != null ? audioPlayer.getPlayingTrack() : null;
         if (audioTrack == null) {
             embedBuilder.setColor(MessageManager.getColor(Color.WARNING));
             embedBuilder.setTitle("Nothing is currently playing.");
@@ -17,14 +17,16 @@
 package io.github.lxgaming.discordmusic.command;
 
 import com.sedmelluq.discord.lavaplayer.track.AudioTrack;
+import io.github.lxgaming.discordmusic.entity.AudioQueue;
 import io.github.lxgaming.discordmusic.entity.Color;
 import io.github.lxgaming.discordmusic.manager.AudioManager;
 import io.github.lxgaming.discordmusic.manager.MessageManager;
+import io.github.lxgaming.discordmusic.util.Toolbox;
 import net.dv8tion.jda.api.EmbedBuilder;
 import net.dv8tion.jda.api.entities.Message;
 
 import java.util.List;
-import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
 
 public class QueueCommand extends Command {
     
@@ -41,7 +43,7 @@ public class QueueCommand extends Command {
     public void execute(Message message, List<String> arguments) throws Exception {
         EmbedBuilder embedBuilder = new EmbedBuilder();
         
-        BlockingQueue<AudioTrack> audioQueue = AudioManager.getAudioQueue(message.getGuild());
+        AudioQueue audioQueue = AudioManager.getAudioQueue(message.getGuild());
         if (audioQueue == null || audioQueue.isEmpty()) {
             embedBuilder.setColor(MessageManager.getColor(Color.WARNING));
             embedBuilder.setTitle("Nothing queued");
@@ -50,11 +52,7 @@ public class QueueCommand extends Command {
         }
         
         int index = 0;
-        for (AudioTrack audioTrack : audioQueue) {
-            if (index >= 10) {
-                continue;
-            }
-            
+        for (AudioTrack audioTrack : audioQueue.getTracks(0, 10)) {
             index++;
             if (embedBuilder.getDescriptionBuilder().length() != 0) {
                 embedBuilder.getDescriptionBuilder().append("\n");
@@ -65,8 +63,11 @@ public class QueueCommand extends Command {
         }
         
         embedBuilder.setColor(MessageManager.getColor(Color.SUCCESS));
+        String duration = Toolbox.getDuration(audioQueue.getDuration(), TimeUnit.MILLISECONDS, false, TimeUnit.SECONDS);
         if ((audioQueue.size() - index) > 0) {
-            embedBuilder.setFooter("and " + (audioQueue.size() - index) + " more...", null);
+            embedBuilder.setFooter("and " + (audioQueue.size() - index) + " more... (" + duration + ")", null);
+        } else {
+            embedBuilder.setFooter(duration, null);
         }
         
         MessageManager.sendTemporaryMessage(message.getChannel(), embedBuilder.build());
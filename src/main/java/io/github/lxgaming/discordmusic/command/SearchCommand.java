@@ -18,9 +18,8 @@ package io.github.lxgaming.discordmusic.command;
 
 import io.github.lxgaming.discordmusic.entity.AudioTrackData;
 import io.github.lxgaming.discordmusic.entity.Color;
-import io.github.lxgaming.discordmusic.handler.AudioPlayerLoadResultHandler;
-import io.github.lxgaming.discordmusic.manager.AudioManager;
 import io.github.lxgaming.discordmusic.manager.CommandManager;
+import io.github.lxgaming.discordmusic.manager.LoadManager;
 import io.github.lxgaming.discordmusic.manager.MessageManager;
 import io.github.lxgaming.discordmusic.util.StringUtils;
 import net.dv8tion.jda.api.EmbedBuilder;
@@ -54,11 +53,11 @@ public class SearchCommand extends Command {
         String query = String.join(" ", arguments);
         if (StringUtils.isBlank(query)) {
             EmbedBuilder embedBuilder = MessageManager.createErrorEmbed("Invalid query");
-            MessageManager.sendTemporaryMessage(message.getChannel(), embedBuilder.build());
+            MessageManager.sendTemporaryErrorMessage(message.getChannel(), embedBuilder.build());
             return;
         }
         
-        AudioManager.AUDIO_PLAYER_MANAGER.loadItem("ytsearch: " + query, new AudioPlayerLoadResultHandler(AudioTrackData.of(message)));
+        LoadManager.load("ytsearch: " + query, AudioTrackData.of(message));
         
         String sanitizedQuery = sanitize(query);
         EmbedBuilder embedBuilder = new EmbedBuilder();
@@ -17,8 +17,7 @@
 package io.github.lxgaming.discordmusic.command;
 
 import io.github.lxgaming.discordmusic.DiscordMusic;
-import io.github.lxgaming.discordmusic.configuration.Config;
-import io.github.lxgaming.discordmusic.configuration.category.GeneralCategory;
+import io.github.lxgaming.discordmusic.configuration.ConfigSnapshot;
 import io.github.lxgaming.discordmusic.entity.Color;
 import io.github.lxgaming.discordmusic.manager.MessageManager;
 import net.dv8tion.jda.api.EmbedBuilder;
@@ -39,10 +38,11 @@ public class SourcesCommand extends Command {
     
     @Override
     public void execute(Message message, List<String> arguments) throws Exception {
-        Set<String> allowedSources = DiscordMusic.getInstance().getConfig().map(Config::getGeneralCategory).map(GeneralCategory::getAllowedSources).orElse(null);
+        ConfigSnapshot snapshot = DiscordMusic.getInstance().getConfiguration().getSnapshot();
+        Set<String> allowedSources = snapshot != null ? snapshot.getAllowedSources() : null;
         if (allowedSources == null) {
             EmbedBuilder embedBuilder = MessageManager.createErrorEmbed("AllowedSources is unavailable");
-            MessageManager.sendTemporaryMessage(message.getChannel(), embedBuilder.build());
+            MessageManager.sendTemporaryErrorMessage(message.getChannel(), embedBuilder.build());
             return;
         }
         
@@ -0,0 +1,149 @@
+/*
+ * Copyright 2026 Alex Thomson
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.lxgaming.discordmusic.command;
+
+import com.google.common.cache.CacheStats;
+import io.github.lxgaming.discordmusic.DiscordMusic;
+import io.github.lxgaming.discordmusic.configuration.Configuration;
+import io.github.lxgaming.discordmusic.entity.Color;
+import io.github.lxgaming.discordmusic.handler.AudioPlayerSendHandler;
+import io.github.lxgaming.discordmusic.manager.AudioManager;
+import io.github.lxgaming.discordmusic.manager.CommandManager;
+import io.github.lxgaming.discordmusic.manager.JournalManager;
+import io.github.lxgaming.discordmusic.manager.LoadManager;
+import io.github.lxgaming.discordmusic.manager.MessageManager;
+import net.dv8tion.jda.api.EmbedBuilder;
+import net.dv8tion.jda.api.entities.Message;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+public class StatisticsCommand extends Command {
+    
+    @Override
+    public boolean prepare() {
+        addAlias("statistics");
+        addAlias("stats");
+        description("Displays playback and processing statistics.");
+        permission("statistics.base");
+        return true;
+    }
+    
+    @Override
+    public void execute(Message message, List<String> arguments) throws Exception {
+        EmbedBuilder embedBuilder = new EmbedBuilder();
+        embedBuilder.setColor(MessageManager.getColor(Color.DEFAULT));
+        embedBuilder.setTitle("Statistics");
+        
+        AudioPlayerSendHandler sendHandler = AudioManager.getSendHandler(message.getGuild());
+        if (sendHandler != null) {
+            StringBuilder stringBuilder = new StringBuilder();
+            stringBuilder.append("Provided: ").append(sendHandler.getProvidedFrames()).append("\n");
+            stringBuilder.append("Missed: ").append(sendHandler.getMissedFrames()).append("\n");
+            stringBuilder.append("Buffered: ").append(sendHandler.getBufferSize()).append(" / ").append(sendHandler.getBufferDepth() + 1).append("\n");
+            stringBuilder.append("Underruns: ").append(sendHandler.getUnderruns());
+            if (sendHandler.getTrackedFrames() != 0L) {
+                stringBuilder.append("\n").append("Allocated: ").append(sendHandler.getAllocatedBytes() / sendHandler.getTrackedFrames()).append(" bytes/frame");
+            }
+            
+            embedBuilder.addField("Audio Frames", stringBuilder.toString(), false);
+        }
+        
+        embedBuilder.addField("Messages", ""
+                + "Accepted: " + CommandManager.getAcceptedMessages() + "\n"
+                + "Rejected: " + CommandManager.getRejectedMessages() + "\n"
+                + "Temporary: " + MessageManager.getTemporaryMessages() + "\n"
+                + "Deletes: " + MessageManager.getDeleteRequests() + " single, " + MessageManager.getBulkDeleteRequests() + " bulk (" + MessageManager.getBulkDeletedMessages() + " messages)" + "\n"
+                + "Saved: " + MessageManager.getSavedRequests() + " requests", false);
+        
+        StringBuilder outboundBuilder = new StringBuilder();
+        outboundBuilder.append("Queued: ").append(MessageManager.getQueuedMessages()).append("\n");
+        outboundBuilder.append("Sent: ").append(MessageManager.getSentMessages()).append("\n");
+        outboundBuilder.append("Coalesced: ").append(MessageManager.getCoalescedMessages());
+        if (MessageManager.getSentMessages() != 0L) {
+            outboundBuilder.append("\n").append("Latency: ").append(TimeUnit.NANOSECONDS.toMillis(MessageManager.getSendTime() / MessageManager.getSentMessages())).append("ms");
+        }
+        
+        embedBuilder.addField("Outbound", outboundBuilder.toString(), false);
+        
+        Configuration configuration = DiscordMusic.getInstance().getConfiguration();
+        StringBuilder configurationBuilder = new StringBuilder();
+        configurationBuilder.append("Requested: ").append(configuration.getSaveRequests()).append("\n");
+        configurationBuilder.append("Written: ").append(configuration.getSaves());
+        if (configuration.getSaves() != 0L) {
+            configurationBuilder.append("\n").append("Write: ").append(TimeUnit.NANOSECONDS.toMillis(configuration.getSaveTime() / configuration.getSaves())).append("ms");
+        }
+        
+        embedBuilder.addField("Configuration", configurationBuilder.toString(), false);
+        
+        embedBuilder.addField("Prefetch", ""
+                + "Hits: " + AudioManager.getPrefetchHits() + "\n"
+                + "Misses: " + AudioManager.getPrefetchMisses(), false);
+        
+        embedBuilder.addField("Players", ""
+                + "Live: " + AudioManager.getLivePlayers() + "\n"
+                + "Pooled: " + AudioManager.getPooledPlayers() + "\n"
+                + "Created: " + AudioManager.getCreatedPlayers() + "\n"
+                + "Reused: " + AudioManager.getReusedPlayers() + "\n"
+                + "Destroyed: " + AudioManager.getDestroyedPlayers() + "\n"
+                + "Leaked: " + AudioManager.getLeakedPlayers(), false);
+        
+        embedBuilder.addField("Now Playing", ""
+                + "Sent: " + AudioManager.getNowPlayingSends() + "\n"
+                + "Edited: " + AudioManager.getNowPlayingEdits(), false);
+        
+        StringBuilder journalBuilder = new StringBuilder();
+        journalBuilder.append("Journals: ").append(JournalManager.getJournals()).append("\n");
+        journalBuilder.append("Written: ").append(JournalManager.getWrittenBytes()).append(" bytes").append("\n");
+        journalBuilder.append("Flushes: ").append(JournalManager.getFlushes()).append("\n");
+        journalBuilder.append("Compactions: ").append(JournalManager.getCompactions()).append("\n");
+        if (JournalManager.getFlushes() != 0L) {
+            journalBuilder.append("Flush: ").append(TimeUnit.NANOSECONDS.toMillis(JournalManager.getFlushTime() / JournalManager.getFlushes())).append("ms").append("\n");
+        }
+        
+        journalBuilder.append("Recovered: ").append(JournalManager.getRecoveredTracks()).append(" tracks in ").append(JournalManager.getRecoveryTime()).append("ms");
+        embedBuilder.addField("Journal", journalBuilder.toString(), false);
+        
+        StringBuilder loadBuilder = new StringBuilder();
+        loadBuilder.append("Requested: ").append(LoadManager.getRequestedLoads()).append("\n");
+        loadBuilder.append("Coalesced: ").append(LoadManager.getCoalescedLoads()).append("\n");
+        loadBuilder.append("Cancelled: ").append(LoadManager.getCancelledLoads()).append("\n");
+        loadBuilder.append("Active: ").append(LoadManager.getActiveLoads()).append("\n");
+        loadBuilder.append("Pending: ").append(LoadManager.getInteractiveLoads()).append(" interactive, ").append(LoadManager.getBulkLoads()).append(" bulk").append("\n");
+        loadBuilder.append("Peak pending: ").append(LoadManager.getPeakPendingLoads());
+        if (LoadManager.getStartedLoads() != 0L) {
+            loadBuilder.append("\n").append("Wait: ").append(LoadManager.getWaitTime() / LoadManager.getStartedLoads()).append("ms");
+        }
+        
+        CacheStats cacheStats = LoadManager.getCacheStats();
+        if (cacheStats != null) {
+            loadBuilder.append("\n").append("Cached: ").append(LoadManager.getCacheSize()).append("\n");
+            loadBuilder.append("Hits: ").append(cacheStats.hitCount()).append("\n");
+            loadBuilder.append("Misses: ").append(cacheStats.missCount()).append("\n");
+            loadBuilder.append("Evictions: ").append(cacheStats.evictionCount());
+        }
+        
+        embedBuilder.addField("Loads", loadBuilder.toString(), false);
+        
+        if (embedBuilder.getFields().isEmpty()) {
+            embedBuilder.setColor(MessageManager.getColor(Color.WARNING));
+            embedBuilder.setDescription("No statistics available");
+        }
+        
+        MessageManager.sendTemporaryMessage(message.getChannel(), embedBuilder.build());
+    }
+}
@@ -40,13 +40,13 @@ public class StopCommand extends Command {
         AudioPlayer audioPlayer = AudioManager.getAudioPlayer(message.getGuild());
         if (audioPlayer == null) {
             EmbedBuilder embedBuilder = MessageManager.createErrorEmbed("AudioPlayer is unavailable");
-            MessageManager.sendTemporaryMessage(message.getChannel(), embedBuilder.build());
+            MessageManager.sendTemporaryErrorMessage(message.getChannel(), embedBuilder.build());
             return;
         }
         
         EmbedBuilder embedBuilder = new EmbedBuilder();
         if (audioPlayer.getPlayingTrack() != null) {
-            audioPlayer.stopTrack();
+            AudioManager.stop(message.getGuild());
             embedBuilder.setColor(MessageManager.getColor(Color.SUCCESS));
             embedBuilder.setTitle("Player stopped.");
         } else {
@@ -16,6 +16,7 @@
 
 package io.github.lxgaming.discordmusic.command;
 
+import com.sedmelluq.discord.lavaplayer.player.AudioPlayer;
 import io.github.lxgaming.discordmusic.DiscordMusic;
 import io.github.lxgaming.discordmusic.configuration.Config;
 import io.github.lxgaming.discordmusic.configuration.category.GeneralCategory;
@@ -41,10 +42,11 @@ public class VolumeCommand extends Command {
     
     @Override
     public void execute(Message message, List<String> arguments) throws Exception {
+        AudioPlayer audioPlayer = AudioManager.getOrCreateAudioPlayer(message.getGuild());
         if (arguments.isEmpty()) {
             EmbedBuilder embedBuilder = new EmbedBuilder();
             embedBuilder.setColor(MessageManager.getColor(Color.DEFAULT));
-            embedBuilder.setTitle("Volume - " + AudioManager.getAudioPlayer(message.getGuild()).getVolume());
+            embedBuilder.setTitle("Volume - " + audioPlayer.getVolume());
             MessageManager.sendTemporaryMessage(message.getChannel(), embedBuilder.build());
             return;
         }
@@ -53,7 +55,7 @@ public class VolumeCommand extends Command {
         Integer volume = Toolbox.parseInteger(argument);
         if (volume == null) {
             EmbedBuilder embedBuilder = MessageManager.createErrorEmbed(String.format("Failed to parse %s as a integer", Toolbox.escapeMarkdown(argument)));
-            MessageManager.sendTemporaryMessage(message.getChannel(), embedBuilder.build());
+            MessageManager.sendTemporaryErrorMessage(message.getChannel(), embedBuilder.build());
             return;
         }
         
@@ -66,12 +68,12 @@ public class VolumeCommand extends Command {
             return;
         }
         
-        int previousVolume = AudioManager.getAudioPlayer(message.getGuild()).getVolume();
-        AudioManager.getAudioPlayer(message.getGuild()).setVolume(volume);
+        int previousVolume = audioPlayer.getVolume();
+        audioPlayer.setVolume(volume);
         
         EmbedBuilder embedBuilder = new EmbedBuilder();
         embedBuilder.setColor(MessageManager.getColor(Color.SUCCESS));
-        embedBuilder.setTitle("Volume - " + previousVolume + " -> " + AudioManager.getAudioPlayer(message.getGuild()).getVolume());
+        embedBuilder.setTitle("Volume - " + previousVolume + " -> " + audioPlayer.getVolume());
         MessageManager.sendTemporaryMessage(message.getChannel(), embedBuilder.build());
     }
 }
\ No newline at end of file
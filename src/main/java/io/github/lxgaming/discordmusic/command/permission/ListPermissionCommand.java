@@ -55,7 +55,7 @@ public class ListPermissionCommand extends Command {
             embedBuilder.setColor(MessageManager.getColor(Color.ERROR));
             embedBuilder.setTitle("You do not have permission to execute this command");
             embedBuilder.setFooter("Missing permission: permission.list.others", null);
-            MessageManager.sendTemporaryMessage(message.getTextChannel(), embedBuilder.build());
+            MessageManager.sendTemporaryErrorMessage(message.getTextChannel(), embedBuilder.build());
             return;
         }
         
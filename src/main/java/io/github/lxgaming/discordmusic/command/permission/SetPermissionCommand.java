@@ -86,12 +86,18 @@ public class SetPermissionCommand extends Command {
         RoleCategory roleCategory = DiscordManager.getOrCreateRoleCategory(role);
         if (roleCategory == null) {
             EmbedBuilder embedBuilder = MessageManager.createErrorEmbed("Failed to get RoleCategory for " + role.getName());
-            MessageManager.sendTemporaryMessage(channel, embedBuilder.build());
+            MessageManager.sendTemporaryErrorMessage(channel, embedBuilder.build());
             return;
         }
         
-        if (roleCategory.getPermissions().put(permission, value) != Boolean.valueOf(value)) {
-            DiscordMusic.getInstance().getConfiguration().saveConfiguration();
+        Boolean previousValue;
+        synchronized (DiscordMusic.getInstance().getConfiguration().getLock()) {
+            previousValue = roleCategory.getPermissions().put(permission, value);
+        }
+        
+        if (previousValue != Boolean.valueOf(value)) {
+            DiscordManager.invalidatePermissions(role.getGuild());
+            DiscordManager.saveGuildCategory(role.getGuild());
         }
         
         EmbedBuilder embedBuilder = new EmbedBuilder();
@@ -110,12 +116,18 @@ public class SetPermissionCommand extends Command {
         UserCategory userCategory = DiscordManager.getOrCreateUserCategory(member);
         if (userCategory == null) {
             EmbedBuilder embedBuilder = MessageManager.createErrorEmbed("Failed to get UserCategory for " + member.getUser().getAsTag());
-            MessageManager.sendTemporaryMessage(channel, embedBuilder.build());
+            MessageManager.sendTemporaryErrorMessage(channel, embedBuilder.build());
             return;
         }
         
-        if (userCategory.getPermissions().put(permission, value) != Boolean.valueOf(value)) {
-            DiscordMusic.getInstance().getConfiguration().saveConfiguration();
+        Boolean previousValue;
+        synchronized (DiscordMusic.getInstance().getConfiguration().getLock()) {
+            previousValue = userCategory.getPermissions().put(permission, value);
+        }
+        
+        if (previousValue != Boolean.valueOf(value)) {
+            DiscordManager.invalidatePermissions(member.getGuild());
+            DiscordManager.saveGuildCategory(member.getGuild());
         }
         
         EmbedBuilder embedBuilder = new EmbedBuilder();
@@ -78,13 +78,19 @@ public class UnsetPermissionCommand extends Command {
         RoleCategory roleCategory = DiscordManager.getOrCreateRoleCategory(role);
         if (roleCategory == null) {
             EmbedBuilder embedBuilder = MessageManager.createErrorEmbed("Failed to get RoleCategory for " + role.getName());
-            MessageManager.sendTemporaryMessage(channel, embedBuilder.build());
+            MessageManager.sendTemporaryErrorMessage(channel, embedBuilder.build());
             return;
         }
         
         EmbedBuilder embedBuilder = new EmbedBuilder();
-        if (roleCategory.getPermissions().remove(permission) != null) {
-            DiscordMusic.getInstance().getConfiguration().saveConfiguration();
+        Boolean previousValue;
+        synchronized (DiscordMusic.getInstance().getConfiguration().getLock()) {
+            previousValue = roleCategory.getPermissions().remove(permission);
+        }
+        
+        if (previousValue != null) {
+            DiscordManager.invalidatePermissions(role.getGuild());
+            DiscordManager.saveGuildCategory(role.getGuild());
             embedBuilder.setColor(MessageManager.getColor(Color.SUCCESS));
             embedBuilder.setTitle("Unset " + permission + " for " + role.getName());
         } else {
@@ -99,13 +105,19 @@ public class UnsetPermissionCommand extends Command {
         UserCategory userCategory = DiscordManager.getOrCreateUserCategory(member);
         if (userCategory == null) {
             EmbedBuilder embedBuilder = MessageManager.createErrorEmbed("Failed to get UserCategory for " + member.getUser().getAsTag());
-            MessageManager.sendTemporaryMessage(channel, embedBuilder.build());
+            MessageManager.sendTemporaryErrorMessage(channel, embedBuilder.build());
             return;
         }
         
         EmbedBuilder embedBuilder = new EmbedBuilder();
-        if (userCategory.getPermissions().remove(permission) != null) {
-            DiscordMusic.getInstance().getConfiguration().saveConfiguration();
+        Boolean previousValue;
+        synchronized (DiscordMusic.getInstance().getConfiguration().getLock()) {
+            previousValue = userCategory.getPermissions().remove(permission);
+        }
+        
+        if (previousValue != null) {
+            DiscordManager.invalidatePermissions(member.getGuild());
+            DiscordManager.saveGuildCategory(member.getGuild());
             embedBuilder.setColor(MessageManager.getColor(Color.SUCCESS));
             embedBuilder.setTitle("Unset " + permission + " for " + member.getUser().getAsTag());
         } else {
@@ -16,6 +16,7 @@
 
 package io.github.lxgaming.discordmusic.configuration;
 
+import com.google.common.collect.Maps;
 import com.google.common.collect.Sets;
 import com.google.gson.annotations.SerializedName;
 import io.github.lxgaming.discordmusic.configuration.category.AccountCategory;
@@ -24,6 +25,7 @@ import io.github.lxgaming.discordmusic.configuration.category.GuildCategory;
 import io.github.lxgaming.discordmusic.configuration.category.MessageCategory;
 import io.github.lxgaming.discordmusic.configuration.category.TaskCategory;
 
+import java.util.Map;
 import java.util.Set;
 
 public class Config {
@@ -43,6 +45,8 @@ public class Config {
     @SerializedName("task")
     private TaskCategory taskCategory = new TaskCategory();
     
+    private transient volatile Map<Long, GuildCategory> guildIndex;
+    
     public AccountCategory getAccountCategory() {
         return accountCategory;
     }
@@ -55,6 +59,60 @@ public class Config {
         return guildCategories;
     }
     
+    public GuildCategory getGuildCategory(long id) {
+        return getGuildIndex().get(id);
+    }
+    
+    /**
+     * Adds the {@link GuildCategory} unless one with the same id already exists.
+     *
+     * @param guildCategory The {@link GuildCategory} to add.
+     * @return {@code true} if the {@link GuildCategory} was added, otherwise {@code false}.
+     */
+    public synchronized boolean addGuildCategory(GuildCategory guildCategory) {
+        if (getGuildIndex().putIfAbsent(guildCategory.getId(), guildCategory) != null) {
+            return false;
+        }
+        
+        guildCategories.add(guildCategory);
+        return true;
+    }
+    
+    /**
+     * Removes the {@link GuildCategory}, called once it has been moved into its own file.
+     *
+     * @param id The id of the guild.
+     * @return {@code true} if the {@link GuildCategory} was removed, otherwise {@code false}.
+     */
+    public synchronized boolean removeGuildCategory(long id) {
+        if (!guildCategories.removeIf(guildCategory -> guildCategory.getId() == id)) {
+            return false;
+        }
+        
+        guildIndex = null;
+        return true;
+    }
+    
+    private Map<Long, GuildCategory> getGuildIndex() {
+        Map<Long, GuildCategory> guildIndex = this.guildIndex;
+        if (guildIndex != null) {
+            return guildIndex;
+        }
+        
+        synchronized (this) {
+            if (this.guildIndex == null) {
+                Map<Long, GuildCategory> index = Maps.newConcurrentMap();
+                for (GuildCategory guildCategory : guildCategories) {
+                    index.putIfAbsent(guildCategory.getId(), guildCategory);
+                }
+                
+                this.guildIndex = index;
+            }
+            
+            return this.guildIndex;
+        }
+    }
+    
     public MessageCategory getMessageCategory() {
         return messageCategory;
     }
@@ -0,0 +1,125 @@
+/*
+ * Copyright 2026 Alex Thomson
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.lxgaming.discordmusic.configuration;
+
+import com.google.common.collect.ImmutableSet;
+import io.github.lxgaming.discordmusic.DiscordMusic;
+import io.github.lxgaming.discordmusic.configuration.category.GeneralCategory;
+import io.github.lxgaming.discordmusic.configuration.category.MessageCategory;
+import io.github.lxgaming.discordmusic.entity.Color;
+import io.github.lxgaming.discordmusic.entity.Emote;
+import io.github.lxgaming.discordmusic.manager.MessageManager;
+import io.github.lxgaming.discordmusic.util.StringUtils;
+import net.dv8tion.jda.api.entities.Role;
+import org.apache.commons.lang3.math.NumberUtils;
+import org.apache.commons.text.StringEscapeUtils;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Immutable view of the values read on hot paths, precomputed from a {@link Config}.
+ *
+ * <p>Colors are parsed and emotes are unescaped once, a new snapshot replaces the old one whenever the {@link Config} changes.</p>
+ */
+public final class ConfigSnapshot {
+    
+    private final String commandPrefix;
+    private final Set<String> allowedSources;
+    private final Map<Color, Integer> colors;
+    private final Map<Emote, String> emotes;
+    private final boolean deleteInvoking;
+    private final boolean deleteMessages;
+    private final boolean sendTyping;
+    
+    private ConfigSnapshot(String commandPrefix, Set<String> allowedSources, Map<Color, Integer> colors, Map<Emote, String> emotes, boolean deleteInvoking, boolean deleteMessages, boolean sendTyping) {
+        this.commandPrefix = commandPrefix;
+        this.allowedSources = allowedSources;
+        this.colors = colors;
+        this.emotes = emotes;
+        this.deleteInvoking = deleteInvoking;
+        this.deleteMessages = deleteMessages;
+        this.sendTyping = sendTyping;
+    }
+    
+    public static ConfigSnapshot of(Config config) {
+        GeneralCategory generalCategory = config.getGeneralCategory();
+        String commandPrefix = generalCategory != null && StringUtils.isNotBlank(generalCategory.getCommandPrefix()) ? generalCategory.getCommandPrefix() : null;
+        Set<String> allowedSources = generalCategory != null && generalCategory.getAllowedSources() != null ? ImmutableSet.copyOf(generalCategory.getAllowedSources()) : ImmutableSet.of();
+        
+        MessageCategory messageCategory = config.getMessageCategory();
+        Map<Color, Integer> colors = new EnumMap<>(Color.class);
+        Map<Emote, String> emotes = new EnumMap<>(Emote.class);
+        for (Color color : Color.values()) {
+            String value = messageCategory != null && messageCategory.getColors() != null ? messageCategory.getColors().get(color) : null;
+            if (value == null) {
+                colors.put(color, Role.DEFAULT_COLOR_RAW);
+                continue;
+            }
+            
+            try {
+                colors.put(color, NumberUtils.createInteger(value));
+            } catch (NumberFormatException ex) {
+                DiscordMusic.getInstance().getLogger().warn("Color {} is invalid ({})", color, value);
+                colors.put(color, Role.DEFAULT_COLOR_RAW);
+            }
+        }
+        
+        for (Emote emote : Emote.values()) {
+            String value = messageCategory != null && messageCategory.getEmotes() != null ? messageCategory.getEmotes().get(emote) : null;
+            emotes.put(emote, StringEscapeUtils.unescapeJava(value != null ? value : MessageManager.DEFAULT_EMOTE));
+        }
+        
+        if (messageCategory == null) {
+            return new ConfigSnapshot(commandPrefix, allowedSources, colors, emotes, false, false, false);
+        }
+        
+        return new ConfigSnapshot(commandPrefix, allowedSources, colors, emotes, messageCategory.isDeleteInvoking(), messageCategory.isDeleteMessages(), messageCategory.isSendTyping());
+    }
+    
+    /**
+     * @return The command prefix, {@code null} if it is blank.
+     */
+    public String getCommandPrefix() {
+        return commandPrefix;
+    }
+    
+    public Set<String> getAllowedSources() {
+        return allowedSources;
+    }
+    
+    public int getColor(Color color) {
+        return colors.get(color);
+    }
+    
+    public String getEmote(Emote emote) {
+        return emotes.get(emote);
+    }
+    
+    public boolean isDeleteInvoking() {
+        return deleteInvoking;
+    }
+    
+    public boolean isDeleteMessages() {
+        return deleteMessages;
+    }
+    
+    public boolean isSendTyping() {
+        return sendTyping;
+    }
+}
\ No newline at end of file
@@ -16,17 +16,35 @@
 
 package io.github.lxgaming.discordmusic.configuration;
 
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+import com.google.common.collect.Sets;
 import com.google.gson.Gson;
 import com.google.gson.GsonBuilder;
 import io.github.lxgaming.discordmusic.DiscordMusic;
+import io.github.lxgaming.discordmusic.configuration.category.GuildCategory;
+import io.github.lxgaming.discordmusic.configuration.category.TaskCategory;
+import io.github.lxgaming.discordmusic.manager.TaskManager;
 import io.github.lxgaming.discordmusic.util.Toolbox;
 
 import java.io.Reader;
-import java.io.Writer;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
 import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
 import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 public class Configuration {
     
@@ -38,24 +56,325 @@ public class Configuration {
             .create();
     
     private final Path path;
-    private Config config;
+    private final Object lock;
+    private final Map<Long, Optional<GuildCategory>> guildCategories;
+    private final Set<Long> dirtyGuilds;
+    private final AtomicBoolean dirty;
+    private final AtomicBoolean scheduled;
+    private final AtomicLong saveRequests;
+    private final AtomicLong saves;
+    private final AtomicLong saveTime;
+    private volatile Config config;
+    private volatile ConfigSnapshot snapshot;
     
     public Configuration(Path path) {
         this.path = path;
+        this.lock = new Object();
+        this.guildCategories = Maps.newConcurrentMap();
+        this.dirtyGuilds = Sets.newConcurrentHashSet();
+        this.dirty = new AtomicBoolean(false);
+        this.scheduled = new AtomicBoolean(false);
+        this.saveRequests = new AtomicLong();
+        this.saves = new AtomicLong();
+        this.saveTime = new AtomicLong();
     }
     
     public boolean loadConfiguration() {
         Config config = loadFile(this.path.resolve("config.json"), Config.class);
         if (config != null) {
+            // Pending changes belong to the previous Config
+            flushConfiguration();
+            ConfigSnapshot snapshot = ConfigSnapshot.of(config);
             this.config = config;
+            this.snapshot = snapshot;
+            this.guildCategories.clear();
+            if (isShardGuilds() && !config.getGuildCategories().isEmpty()) {
+                migrateGuildCategories(config);
+            } else if (!isShardGuilds() && Files.isDirectory(getGuildsPath())) {
+                restoreGuildCategories(config);
+            }
+            
             return true;
         }
         
         return false;
     }
     
+    /**
+     * Moves every {@link GuildCategory} stored in config.json into its own file.
+     *
+     * <p>Only guilds which were written are removed from config.json, a guild whose file already exists is kept so neither copy is lost.</p>
+     */
+    private void migrateGuildCategories(Config config) {
+        List<GuildCategory> migratedGuildCategories = Lists.newArrayList();
+        for (GuildCategory guildCategory : config.getGuildCategories()) {
+            Path guildPath = getGuildPath(guildCategory.getId());
+            if (Files.exists(guildPath)) {
+                DiscordMusic.getInstance().getLogger().warn("Guild {} ({}) already exists in {}, keeping it in config.json", guildCategory.getName(), guildCategory.getId(), guildPath);
+                continue;
+            }
+            
+            if (!saveFile(guildPath, guildCategory)) {
+                DiscordMusic.getInstance().getLogger().warn("Failed to migrate guild {} ({})", guildCategory.getName(), guildCategory.getId());
+                break;
+            }
+            
+            migratedGuildCategories.add(guildCategory);
+        }
+        
+        if (migratedGuildCategories.isEmpty()) {
+            return;
+        }
+        
+        DiscordMusic.getInstance().getLogger().info("Migrated {} of {} guilds to {}", migratedGuildCategories.size(), config.getGuildCategories().size(), getGuildsPath());
+        synchronized (lock) {
+            for (GuildCategory guildCategory : migratedGuildCategories) {
+                config.removeGuildCategory(guildCategory.getId());
+            }
+        }
+        
+        dirty.set(true);
+        flushConfiguration();
+    }
+    
+    /**
+     * Moves every {@link GuildCategory} stored in its own file back into config.json, the files are only deleted once config.json has been written.
+     */
+    private void restoreGuildCategories(Config config) {
+        List<Path> guildPaths;
+        try (Stream<Path> stream = Files.list(getGuildsPath())) {
+            guildPaths = stream.filter(path -> path.getFileName().toString().endsWith(".json")).collect(Collectors.toList());
+        } catch (Exception ex) {
+            DiscordMusic.getInstance().getLogger().error("Encountered an error while listing {}", getGuildsPath(), ex);
+            return;
+        }
+        
+        for (Path guildPath : guildPaths) {
+            GuildCategory guildCategory = deserializeFile(guildPath, GuildCategory.class);
+            if (guildCategory == null) {
+                DiscordMusic.getInstance().getLogger().warn("Failed to restore guild from {}", guildPath);
+                return;
+            }
+            
+            boolean added;
+            synchronized (lock) {
+                added = config.addGuildCategory(guildCategory);
+            }
+            
+            if (!added) {
+                DiscordMusic.getInstance().getLogger().warn("Guild {} ({}) already exists in config.json", guildCategory.getName(), guildCategory.getId());
+            }
+        }
+        
+        dirty.set(true);
+        if (!flushConfiguration()) {
+            DiscordMusic.getInstance().getLogger().warn("Failed to restore guilds from {}", getGuildsPath());
+            return;
+        }
+        
+        try {
+            for (Path guildPath : guildPaths) {
+                Files.delete(guildPath);
+            }
+            
+            Files.deleteIfExists(getGuildsPath());
+        } catch (Exception ex) {
+            DiscordMusic.getInstance().getLogger().error("Encountered an error while deleting {}", getGuildsPath(), ex);
+        }
+        
+        DiscordMusic.getInstance().getLogger().info("Restored {} guilds from {}", guildPaths.size(), getGuildsPath());
+    }
+    
+    /**
+     * Returns the {@link GuildCategory} for the provided guild, loading it from its own file on first access when guilds are sharded.
+     *
+     * @param id The id of the guild.
+     * @return The {@link GuildCategory}, {@code null} if it does not exist.
+     */
+    public GuildCategory getGuildCategory(long id) {
+        Config config = this.config;
+        if (config == null) {
+            return null;
+        }
+        
+        if (!isShardGuilds()) {
+            return config.getGuildCategory(id);
+        }
+        
+        Optional<GuildCategory> guildCategory = guildCategories.computeIfAbsent(id, key -> {
+            Path guildPath = getGuildPath(key);
+            if (!Files.exists(guildPath)) {
+                // Cache the miss, unconfigured guilds are looked up on every voice event
+                return Optional.empty();
+            }
+            
+            // Nothing is cached if the file is unreadable so it is never overwritten by a new GuildCategory
+            GuildCategory value = deserializeFile(guildPath, GuildCategory.class);
+            return value != null ? Optional.of(value) : null;
+        });
+        
+        return guildCategory != null ? guildCategory.orElse(null) : null;
+    }
+    
+    /**
+     * Adds the {@link GuildCategory} unless one with the same id already exists.
+     *
+     * @param guildCategory The {@link GuildCategory} to add.
+     * @return {@code true} if the {@link GuildCategory} was added, otherwise {@code false}.
+     */
+    public boolean addGuildCategory(GuildCategory guildCategory) {
+        Config config = this.config;
+        if (config == null) {
+            return false;
+        }
+        
+        if (!isShardGuilds()) {
+            synchronized (lock) {
+                return config.addGuildCategory(guildCategory);
+            }
+        }
+        
+        if (getGuildCategory(guildCategory.getId()) != null || !guildCategories.replace(guildCategory.getId(), Optional.empty(), Optional.of(guildCategory))) {
+            return false;
+        }
+        
+        saveGuildCategory(guildCategory);
+        return true;
+    }
+    
+    /**
+     * Marks the {@link GuildCategory} as changed, only its own file is written when guilds are sharded.
+     *
+     * @param guildCategory The {@link GuildCategory} which changed.
+     * @return {@code true} if a write was scheduled by this request, otherwise {@code false}.
+     */
+    public boolean saveGuildCategory(GuildCategory guildCategory) {
+        if (!isShardGuilds()) {
+            return saveConfiguration();
+        }
+        
+        dirtyGuilds.add(guildCategory.getId());
+        return scheduleSave();
+    }
+    
+    /**
+     * Returns the lock held while the {@link Config} or a {@link GuildCategory} is changed in place, writes serialize under it so they never observe a change half way through.
+     *
+     * @return The configuration lock.
+     */
+    public Object getLock() {
+        return lock;
+    }
+    
+    /**
+     * Rebuilds the {@link ConfigSnapshot}, called after values in the {@link Config} have been changed in place.
+     */
+    public void updateSnapshot() {
+        Config config = this.config;
+        if (config != null) {
+            this.snapshot = ConfigSnapshot.of(config);
+        }
+    }
+    
+    /**
+     * Marks the {@link Config} as changed, it is written on a background thread once the save delay has elapsed.
+     *
+     * <p>Requests made before the pending write starts are coalesced into it.</p>
+     *
+     * @return {@code true} if a write was scheduled by this request, otherwise {@code false}.
+     */
     public boolean saveConfiguration() {
-        return saveFile(this.path.resolve("config.json"), config);
+        dirty.set(true);
+        return scheduleSave();
+    }
+    
+    private boolean scheduleSave() {
+        saveRequests.incrementAndGet();
+        if (!scheduled.compareAndSet(false, true)) {
+            return false;
+        }
+        
+        long saveDelay = Optional.ofNullable(config).map(Config::getTaskCategory).map(TaskCategory::getSaveDelay).orElse(TaskCategory.DEFAULT_SAVE_DELAY);
+        try {
+            TaskManager.SCHEDULED_EXECUTOR_SERVICE.schedule(() -> {
+                scheduled.set(false);
+                flushConfiguration();
+            }, saveDelay, TimeUnit.MILLISECONDS);
+            return true;
+        } catch (RejectedExecutionException ex) {
+            // The executor has been shut down, write immediately instead
+            scheduled.set(false);
+            flushConfiguration();
+            return false;
+        }
+    }
+    
+    /**
+     * Writes the {@link Config} and any changed {@link GuildCategory GuildCategories} immediately.
+     *
+     * @return {@code true} if everything is up to date on disk, otherwise {@code false}.
+     */
+    public synchronized boolean flushConfiguration() {
+        boolean success = true;
+        if (dirty.getAndSet(false)) {
+            long startTime = System.nanoTime();
+            if (saveSnapshot(this.path.resolve("config.json"), config)) {
+                saves.incrementAndGet();
+                saveTime.addAndGet(System.nanoTime() - startTime);
+            } else {
+                dirty.set(true);
+                success = false;
+            }
+        }
+        
+        for (Long id : dirtyGuilds) {
+            dirtyGuilds.remove(id);
+            GuildCategory guildCategory = guildCategories.getOrDefault(id, Optional.empty()).orElse(null);
+            if (guildCategory == null) {
+                continue;
+            }
+            
+            long startTime = System.nanoTime();
+            if (saveSnapshot(getGuildPath(id), guildCategory)) {
+                saves.incrementAndGet();
+                saveTime.addAndGet(System.nanoTime() - startTime);
+            } else {
+                dirtyGuilds.add(id);
+                success = false;
+            }
+        }
+        
+        return success;
+    }
+    
+    /**
+     * Serializes the object under the lock and writes it after the lock is released, slow disks never block changes.
+     */
+    private boolean saveSnapshot(Path path, Object object) {
+        String content;
+        try {
+            synchronized (lock) {
+                content = GSON.toJson(object);
+            }
+        } catch (Exception ex) {
+            DiscordMusic.getInstance().getLogger().error("Encountered an error while serializing {}", path, ex);
+            return false;
+        }
+        
+        return writeFile(path, content);
+    }
+    
+    private boolean isShardGuilds() {
+        Config config = this.config;
+        return config != null && config.getGeneralCategory() != null && config.getGeneralCategory().isShardGuilds();
+    }
+    
+    private Path getGuildsPath() {
+        return this.path.resolve("guilds");
+    }
+    
+    private Path getGuildPath(long id) {
+        return getGuildsPath().resolve(id + ".json");
     }
     
     public static <T> T loadFile(Path path, Class<T> type) {
@@ -72,11 +391,7 @@ public class Configuration {
     }
     
     public static boolean saveFile(Path path, Object object) {
-        if (Files.exists(path) || createFile(path)) {
-            return serializeFile(path, object);
-        }
-        
-        return false;
+        return serializeFile(path, object);
     }
     
     public static <T> T deserializeFile(Path path, Class<T> type) {
@@ -89,25 +404,40 @@ public class Configuration {
     }
     
     public static boolean serializeFile(Path path, Object object) {
-        try (Writer writer = Files.newBufferedWriter(path, StandardCharsets.UTF_8, StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
-            GSON.toJson(object, writer);
-            return true;
+        String content;
+        try {
+            content = GSON.toJson(object);
         } catch (Exception ex) {
             DiscordMusic.getInstance().getLogger().error("Encountered an error while serializing {}", path, ex);
             return false;
         }
+        
+        return writeFile(path, content);
     }
     
-    private static boolean createFile(Path path) {
+    /**
+     * Writes the content into a temporary file which is forced to disk before it replaces the target, a failed write leaves the previous file intact.
+     */
+    private static boolean writeFile(Path path, String content) {
+        Path temporaryPath = path.resolveSibling(path.getFileName() + ".tmp");
         try {
             if (path.getParent() != null) {
                 Files.createDirectories(path.getParent());
             }
             
-            Files.createFile(path);
+            try (FileChannel fileChannel = FileChannel.open(temporaryPath, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+                ByteBuffer byteBuffer = StandardCharsets.UTF_8.encode(content);
+                while (byteBuffer.hasRemaining()) {
+                    fileChannel.write(byteBuffer);
+                }
+                
+                fileChannel.force(true);
+            }
+            
+            Files.move(temporaryPath, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
             return true;
         } catch (Exception ex) {
-            DiscordMusic.getInstance().getLogger().error("Encountered an error while creating {}", path, ex);
+            DiscordMusic.getInstance().getLogger().error("Encountered an error while writing {}", path, ex);
             return false;
         }
     }
@@ -115,4 +445,20 @@ public class Configuration {
     public Config getConfig() {
         return config;
     }
+    
+    public ConfigSnapshot getSnapshot() {
+        return snapshot;
+    }
+    
+    public long getSaveRequests() {
+        return saveRequests.get();
+    }
+    
+    public long getSaves() {
+        return saves.get();
+    }
+    
+    public long getSaveTime() {
+        return saveTime.get();
+    }
 }
\ No newline at end of file
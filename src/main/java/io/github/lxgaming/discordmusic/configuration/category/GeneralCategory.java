@@ -27,6 +27,14 @@ public class GeneralCategory {
     public static final int DEFAULT_MAX_VOLUME = 200;
     public static final int DEFAULT_SEARCH_LIMIT = 5;
     public static final int DEFAULT_TRACK_STUCK_THRESHOLD = 10000; // 10 Seconds
+    public static final long DEFAULT_IDLE_TIMEOUT = 900000L; // 15 Minutes
+    public static final int DEFAULT_PREFETCH_THRESHOLD = 5000; // 5 Seconds
+    public static final int DEFAULT_BUFFER_DEPTH = 0; // Frames, 20 Milliseconds each
+    public static final int DEFAULT_PLAYER_POOL_SIZE = 0;
+    public static final int DEFAULT_LOAD_CACHE_SIZE = 10000; // Tracks
+    public static final long DEFAULT_LOAD_CACHE_EXPIRY = 3600000L; // 1 Hour
+    public static final int DEFAULT_MAX_LOADS = 8;
+    public static final int DEFAULT_MAX_GUILD_LOADS = 2;
     
     @SerializedName("debug")
     private boolean debug = false;
@@ -46,6 +54,42 @@ public class GeneralCategory {
     @SerializedName("trackStuckThreshold")
     private int trackStuckThreshold = DEFAULT_TRACK_STUCK_THRESHOLD;
     
+    @SerializedName("idleTimeout")
+    private long idleTimeout = DEFAULT_IDLE_TIMEOUT;
+    
+    @SerializedName("prefetchThreshold")
+    private int prefetchThreshold = DEFAULT_PREFETCH_THRESHOLD;
+    
+    @SerializedName("bufferDepth")
+    private int bufferDepth = DEFAULT_BUFFER_DEPTH;
+    
+    @SerializedName("nonAllocatingBuffer")
+    private boolean nonAllocatingBuffer = true;
+    
+    @SerializedName("playerPoolSize")
+    private int playerPoolSize = DEFAULT_PLAYER_POOL_SIZE;
+    
+    @SerializedName("persistQueues")
+    private boolean persistQueues = true;
+    
+    @SerializedName("loadCacheSize")
+    private int loadCacheSize = DEFAULT_LOAD_CACHE_SIZE;
+    
+    @SerializedName("loadCacheExpiry")
+    private long loadCacheExpiry = DEFAULT_LOAD_CACHE_EXPIRY;
+    
+    @SerializedName("persistLoadCache")
+    private boolean persistLoadCache = false;
+    
+    @SerializedName("maxLoads")
+    private int maxLoads = DEFAULT_MAX_LOADS;
+    
+    @SerializedName("maxGuildLoads")
+    private int maxGuildLoads = DEFAULT_MAX_GUILD_LOADS;
+    
+    @SerializedName("shardGuilds")
+    private boolean shardGuilds = false;
+    
     @SerializedName("allowedSources")
     private Set<String> allowedSources = Sets.newLinkedHashSet();
     
@@ -122,6 +166,90 @@ public class GeneralCategory {
         this.trackStuckThreshold = trackStuckThreshold;
     }
     
+    public long getIdleTimeout() {
+        return idleTimeout;
+    }
+    
+    public void setIdleTimeout(long idleTimeout) {
+        this.idleTimeout = idleTimeout;
+    }
+    
+    public int getPrefetchThreshold() {
+        return prefetchThreshold;
+    }
+    
+    public void setPrefetchThreshold(int prefetchThreshold) {
+        this.prefetchThreshold = prefetchThreshold;
+    }
+    
+    public int getBufferDepth() {
+        return bufferDepth;
+    }
+    
+    public void setBufferDepth(int bufferDepth) {
+        this.bufferDepth = bufferDepth;
+    }
+    
+    public boolean isNonAllocatingBuffer() {
+        return nonAllocatingBuffer;
+    }
+    
+    public void setNonAllocatingBuffer(boolean nonAllocatingBuffer) {
+        this.nonAllocatingBuffer = nonAllocatingBuffer;
+    }
+    
+    public int getPlayerPoolSize() {
+        return playerPoolSize;
+    }
+    
+    public void setPlayerPoolSize(int playerPoolSize) {
+        this.playerPoolSize = playerPoolSize;
+    }
+    
+    public boolean isPersistQueues() {
+        return persistQueues;
+    }
+    
+    public int getLoadCacheSize() {
+        return loadCacheSize;
+    }
+    
+    public void setLoadCacheSize(int loadCacheSize) {
+        this.loadCacheSize = loadCacheSize;
+    }
+    
+    public long getLoadCacheExpiry() {
+        return loadCacheExpiry;
+    }
+    
+    public void setLoadCacheExpiry(long loadCacheExpiry) {
+        this.loadCacheExpiry = loadCacheExpiry;
+    }
+    
+    public boolean isPersistLoadCache() {
+        return persistLoadCache;
+    }
+    
+    public int getMaxLoads() {
+        return maxLoads;
+    }
+    
+    public void setMaxLoads(int maxLoads) {
+        this.maxLoads = maxLoads;
+    }
+    
+    public int getMaxGuildLoads() {
+        return maxGuildLoads;
+    }
+    
+    public void setMaxGuildLoads(int maxGuildLoads) {
+        this.maxGuildLoads = maxGuildLoads;
+    }
+    
+    public boolean isShardGuilds() {
+        return shardGuilds;
+    }
+    
     public Set<String> getAllowedSources() {
         return allowedSources;
     }
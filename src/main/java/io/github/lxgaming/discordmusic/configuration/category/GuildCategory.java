@@ -16,11 +16,14 @@
 
 package io.github.lxgaming.discordmusic.configuration.category;
 
+import com.google.common.collect.Maps;
 import com.google.common.collect.Sets;
 import com.google.gson.annotations.SerializedName;
 import io.github.lxgaming.discordmusic.configuration.category.guild.RoleCategory;
 import io.github.lxgaming.discordmusic.configuration.category.guild.UserCategory;
 
+import java.util.Collection;
+import java.util.Map;
 import java.util.Set;
 
 public class GuildCategory {
@@ -46,6 +49,9 @@ public class GuildCategory {
     @SerializedName("users")
     private Set<UserCategory> userCategories = Sets.newCopyOnWriteArraySet();
     
+    private transient volatile Map<Long, RoleCategory> roleIndex;
+    private transient volatile Map<Long, UserCategory> userIndex;
+    
     public long getId() {
         return id;
     }
@@ -85,4 +91,76 @@ public class GuildCategory {
     public Set<UserCategory> getUserCategories() {
         return userCategories;
     }
+    
+    public RoleCategory getRoleCategory(long id) {
+        return getRoleIndex().get(id);
+    }
+    
+    public synchronized boolean addRoleCategory(RoleCategory roleCategory) {
+        if (getRoleIndex().putIfAbsent(roleCategory.getId(), roleCategory) != null) {
+            return false;
+        }
+        
+        roleCategories.add(roleCategory);
+        return true;
+    }
+    
+    public synchronized void setRoleCategories(Collection<RoleCategory> roleCategories) {
+        this.roleCategories.clear();
+        this.roleCategories.addAll(roleCategories);
+        this.roleIndex = null;
+    }
+    
+    public UserCategory getUserCategory(long id) {
+        return getUserIndex().get(id);
+    }
+    
+    public synchronized boolean addUserCategory(UserCategory userCategory) {
+        if (getUserIndex().putIfAbsent(userCategory.getId(), userCategory) != null) {
+            return false;
+        }
+        
+        userCategories.add(userCategory);
+        return true;
+    }
+    
+    private Map<Long, RoleCategory> getRoleIndex() {
+        Map<Long, RoleCategory> roleIndex = this.roleIndex;
+        if (roleIndex != null) {
+            return roleIndex;
+        }
+        
+        synchronized (this) {
+            if (this.roleIndex == null) {
+                Map<Long, RoleCategory> index = Maps.newConcurrentMap();
+                for (RoleCategory roleCategory : roleCategories) {
+                    index.putIfAbsent(roleCategory.getId(), roleCategory);
+                }
+                
+                this.roleIndex = index;
+            }
+            
+            return this.roleIndex;
+        }
+    }
+    
+    private Map<Long, UserCategory> getUserIndex() {
+        Map<Long, UserCategory> userIndex = this.userIndex;
+        if (userIndex != null) {
+            return userIndex;
+        }
+        
+        synchronized (this) {
+            if (this.userIndex == null) {
+                Map<Long, UserCategory> index = Maps.newConcurrentMap();
+                for (UserCategory userCategory : userCategories) {
+                    index.putIfAbsent(userCategory.getId(), userCategory);
+                }
+                
+                this.userIndex = index;
+            }
+            
+            return this.userIndex;
+        }
+    }
 }
\ No newline at end of file
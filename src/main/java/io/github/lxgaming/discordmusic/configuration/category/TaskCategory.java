@@ -22,6 +22,7 @@ public class TaskCategory {
     
     public static final int DEFAULT_CORE_POOL_SIZE = 10;
     public static final long DEFAULT_SHUTDOWN_TIMEOUT = 15000L; // 15 Seconds
+    public static final long DEFAULT_SAVE_DELAY = 5000L; // 5 Seconds
     
     @SerializedName("corePoolSize")
     private int corePoolSize = DEFAULT_CORE_POOL_SIZE;
@@ -29,6 +30,9 @@ public class TaskCategory {
     @SerializedName("shutdownTimeout")
     private long shutdownTimeout = DEFAULT_SHUTDOWN_TIMEOUT;
     
+    @SerializedName("saveDelay")
+    private long saveDelay = DEFAULT_SAVE_DELAY;
+    
     public int getCorePoolSize() {
         return corePoolSize;
     }
@@ -44,4 +48,12 @@ public class TaskCategory {
     public void setShutdownTimeout(long shutdownTimeout) {
         this.shutdownTimeout = shutdownTimeout;
     }
+    
+    public long getSaveDelay() {
+        return saveDelay;
+    }
+    
+    public void setSaveDelay(long saveDelay) {
+        this.saveDelay = saveDelay;
+    }
 }
\ No newline at end of file
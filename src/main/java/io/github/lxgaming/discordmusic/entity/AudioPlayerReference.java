@@ -0,0 +1,50 @@
+/*
+ * Copyright 2026 Alex Thomson
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.lxgaming.discordmusic.entity;
+
+import com.sedmelluq.discord.lavaplayer.player.AudioPlayer;
+
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
+
+/**
+ * Tracks an {@link AudioPlayer} which has been created but not yet destroyed.
+ *
+ * <p>If the referent is collected while this reference is still tracked the player was never released.</p>
+ */
+public class AudioPlayerReference extends WeakReference<AudioPlayer> {
+    
+    private final long creationTime;
+    private volatile long guildId;
+    
+    public AudioPlayerReference(AudioPlayer audioPlayer, ReferenceQueue<? super AudioPlayer> referenceQueue) {
+        super(audioPlayer, referenceQueue);
+        this.creationTime = System.currentTimeMillis();
+    }
+    
+    public long getCreationTime() {
+        return creationTime;
+    }
+    
+    public long getGuildId() {
+        return guildId;
+    }
+    
+    public void setGuildId(long guildId) {
+        this.guildId = guildId;
+    }
+}
@@ -0,0 +1,325 @@
+/*
+ * Copyright 2026 Alex Thomson
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.lxgaming.discordmusic.entity;
+
+import com.google.common.collect.Lists;
+import com.sedmelluq.discord.lavaplayer.tools.Units;
+import com.sedmelluq.discord.lavaplayer.track.AudioTrack;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Per-guild track queue backed by an implicit treap, ordered by position rather than by key.
+ *
+ * <p>Positional insert and remove are O(log n), the size, head, tail and total duration are cached.
+ * All methods synchronize on the queue so compound operations may do the same.</p>
+ */
+public class AudioQueue {
+    
+    private Node root;
+    private Node head;
+    private Node tail;
+    private long duration;
+    private long generation;
+    private QueueJournal journal;
+    
+    public synchronized boolean offer(AudioTrack audioTrack) {
+        add(size(root), audioTrack);
+        return true;
+    }
+    
+    public synchronized boolean offerFirst(AudioTrack audioTrack) {
+        add(0, audioTrack);
+        return true;
+    }
+    
+    public synchronized AudioTrack peek() {
+        return head != null ? head.audioTrack : null;
+    }
+    
+    public synchronized AudioTrack peekLast() {
+        return tail != null ? tail.audioTrack : null;
+    }
+    
+    public synchronized AudioTrack poll() {
+        if (root == null) {
+            return null;
+        }
+        
+        return remove(0);
+    }
+    
+    public synchronized void add(int index, AudioTrack audioTrack) throws IndexOutOfBoundsException {
+        checkPositionIndex(index);
+        Node[] nodes = split(root, index);
+        root = merge(merge(nodes[0], new Node(audioTrack)), nodes[1]);
+        duration += getDuration(audioTrack);
+        refresh();
+        if (journal != null) {
+            journal.add(index, audioTrack);
+        }
+    }
+    
+    /**
+     * Appends the provided tracks unless the queue has been cleared since {@code generation} was read.
+     *
+     * @param audioTracks The tracks to append.
+     * @param generation The {@link #getGeneration() generation} the tracks were requested against.
+     * @return {@code true} if the tracks were appended, otherwise {@code false}.
+     */
+    public synchronized boolean addAll(Collection<AudioTrack> audioTracks, long generation) {
+        if (this.generation != generation) {
+            return false;
+        }
+        
+        for (AudioTrack audioTrack : audioTracks) {
+            add(size(root), audioTrack);
+        }
+        
+        return true;
+    }
+    
+    public synchronized AudioTrack remove(int index) throws IndexOutOfBoundsException {
+        checkElementIndex(index);
+        Node[] left = split(root, index);
+        Node[] right = split(left[1], 1);
+        root = merge(left[0], right[1]);
+        duration -= getDuration(right[0].audioTrack);
+        refresh();
+        if (journal != null) {
+            journal.remove(index);
+        }
+        
+        return right[0].audioTrack;
+    }
+    
+    public synchronized AudioTrack get(int index) throws IndexOutOfBoundsException {
+        checkElementIndex(index);
+        Node node = root;
+        while (true) {
+            int leftSize = size(node.left);
+            if (index < leftSize) {
+                node = node.left;
+            } else if (index > leftSize) {
+                index -= leftSize + 1;
+                node = node.right;
+            } else {
+                return node.audioTrack;
+            }
+        }
+    }
+    
+    public synchronized void move(int fromIndex, int toIndex) throws IndexOutOfBoundsException {
+        checkElementIndex(toIndex);
+        add(toIndex, remove(fromIndex));
+    }
+    
+    /**
+     * Returns the tracks between {@code fromIndex}, inclusive, and {@code toIndex}, exclusive.
+     *
+     * <p>Only the requested range is visited, rendering a page does not walk the whole queue.</p>
+     *
+     * @param fromIndex The index of the first track.
+     * @param toIndex The index after the last track, clamped to the size of the queue.
+     * @return A copy of the tracks in the requested range.
+     */
+    public synchronized List<AudioTrack> getTracks(int fromIndex, int toIndex) {
+        List<AudioTrack> audioTracks = Lists.newArrayList();
+        collect(root, Math.max(fromIndex, 0), Math.min(toIndex, size(root)), audioTracks);
+        return audioTracks;
+    }
+    
+    public synchronized List<AudioTrack> getTracks() {
+        return getTracks(0, size(root));
+    }
+    
+    public synchronized void shuffle() {
+        List<AudioTrack> audioTracks = getTracks();
+        Collections.shuffle(audioTracks, ThreadLocalRandom.current());
+        root = null;
+        for (AudioTrack audioTrack : audioTracks) {
+            root = merge(root, new Node(audioTrack));
+        }
+        
+        refresh();
+        if (journal != null) {
+            journal.clear();
+            for (int index = 0; index < audioTracks.size(); index++) {
+                journal.add(index, audioTracks.get(index));
+            }
+        }
+    }
+    
+    public synchronized void clear() {
+        root = null;
+        head = null;
+        tail = null;
+        duration = 0L;
+        generation++;
+        if (journal != null) {
+            journal.clear();
+        }
+    }
+    
+    public synchronized int size() {
+        return size(root);
+    }
+    
+    public synchronized boolean isEmpty() {
+        return root == null;
+    }
+    
+    /**
+     * @return The total duration of all queued tracks in milliseconds, streams and tracks of unknown length are excluded.
+     */
+    public synchronized long getDuration() {
+        return duration;
+    }
+    
+    public synchronized long getGeneration() {
+        return generation;
+    }
+    
+    public synchronized QueueJournal getJournal() {
+        return journal;
+    }
+    
+    public synchronized void setJournal(QueueJournal journal) {
+        this.journal = journal;
+    }
+    
+    private void refresh() {
+        head = root;
+        while (head != null && head.left != null) {
+            head = head.left;
+        }
+        
+        tail = root;
+        while (tail != null && tail.right != null) {
+            tail = tail.right;
+        }
+    }
+    
+    private void checkElementIndex(int index) throws IndexOutOfBoundsException {
+        if (index < 0 || index >= size(root)) {
+            throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size(root));
+        }
+    }
+    
+    private void checkPositionIndex(int index) throws IndexOutOfBoundsException {
+        if (index < 0 || index > size(root)) {
+            throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size(root));
+        }
+    }
+    
+    private static void collect(Node node, int fromIndex, int toIndex, List<AudioTrack> audioTracks) {
+        if (node == null || fromIndex >= toIndex) {
+            return;
+        }
+        
+        int leftSize = size(node.left);
+        if (fromIndex < leftSize) {
+            collect(node.left, fromIndex, Math.min(toIndex, leftSize), audioTracks);
+        }
+        
+        if (fromIndex <= leftSize && toIndex > leftSize) {
+            audioTracks.add(node.audioTrack);
+        }
+        
+        if (toIndex > leftSize + 1) {
+            collect(node.right, Math.max(fromIndex - leftSize - 1, 0), toIndex - leftSize - 1, audioTracks);
+        }
+    }
+    
+    /**
+     * Splits the provided tree into the first {@code index} nodes and the remaining nodes.
+     */
+    private static Node[] split(Node node, int index) {
+        if (node == null) {
+            return new Node[2];
+        }
+        
+        int leftSize = size(node.left);
+        if (index <= leftSize) {
+            Node[] nodes = split(node.left, index);
+            node.left = nodes[1];
+            node.update();
+            nodes[1] = node;
+            return nodes;
+        }
+        
+        Node[] nodes = split(node.right, index - leftSize - 1);
+        node.right = nodes[0];
+        node.update();
+        nodes[0] = node;
+        return nodes;
+    }
+    
+    private static Node merge(Node left, Node right) {
+        if (left == null) {
+            return right;
+        }
+        
+        if (right == null) {
+            return left;
+        }
+        
+        if (left.priority > right.priority) {
+            left.right = merge(left.right, right);
+            left.update();
+            return left;
+        }
+        
+        right.left = merge(left, right.left);
+        right.update();
+        return right;
+    }
+    
+    private static int size(Node node) {
+        return node != null ? node.size : 0;
+    }
+    
+    private static long getDuration(AudioTrack audioTrack) {
+        if (audioTrack.getInfo().isStream || audioTrack.getDuration() == Units.DURATION_MS_UNKNOWN) {
+            return 0L;
+        }
+        
+        return audioTrack.getDuration();
+    }
+    
+    private static final class Node {
+        
+        private final AudioTrack audioTrack;
+        private final int priority;
+        private Node left;
+        private Node right;
+        private int size;
+        
+        private Node(AudioTrack audioTrack) {
+            this.audioTrack = audioTrack;
+            this.priority = ThreadLocalRandom.current().nextInt();
+            this.size = 1;
+        }
+        
+        private void update() {
+            size = 1 + size(left) + size(right);
+        }
+    }
+}
\ No newline at end of file
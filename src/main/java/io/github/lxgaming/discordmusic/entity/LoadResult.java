@@ -0,0 +1,108 @@
+/*
+ * Copyright 2026 Alex Thomson
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.lxgaming.discordmusic.entity;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.Lists;
+import com.sedmelluq.discord.lavaplayer.player.AudioLoadResultHandler;
+import com.sedmelluq.discord.lavaplayer.track.AudioPlaylist;
+import com.sedmelluq.discord.lavaplayer.track.AudioTrack;
+import com.sedmelluq.discord.lavaplayer.track.BasicAudioPlaylist;
+
+import java.util.List;
+
+/**
+ * Result of an {@link com.sedmelluq.discord.lavaplayer.player.AudioPlayerManager#loadItem} call which can be handed out repeatedly.
+ *
+ * <p>The stored tracks are never played, every dispatch receives fresh clones.</p>
+ */
+public class LoadResult {
+    
+    private final String name;
+    private final List<AudioTrack> tracks;
+    private final int selectedIndex;
+    private final boolean playlist;
+    private final boolean searchResult;
+    private final long creationTime;
+    
+    public LoadResult(String name, List<AudioTrack> tracks, int selectedIndex, boolean playlist, boolean searchResult, long creationTime) {
+        this.name = name;
+        this.tracks = ImmutableList.copyOf(tracks);
+        this.selectedIndex = selectedIndex;
+        this.playlist = playlist;
+        this.searchResult = searchResult;
+        this.creationTime = creationTime;
+    }
+    
+    public static LoadResult of(AudioTrack audioTrack) {
+        return new LoadResult(null, ImmutableList.of(audioTrack.makeClone()), -1, false, false, System.currentTimeMillis());
+    }
+    
+    public static LoadResult of(AudioPlaylist audioPlaylist) {
+        List<AudioTrack> tracks = Lists.newArrayListWithCapacity(audioPlaylist.getTracks().size());
+        for (AudioTrack audioTrack : audioPlaylist.getTracks()) {
+            tracks.add(audioTrack.makeClone());
+        }
+        
+        int selectedIndex = audioPlaylist.getSelectedTrack() != null ? audioPlaylist.getTracks().indexOf(audioPlaylist.getSelectedTrack()) : -1;
+        return new LoadResult(audioPlaylist.getName(), tracks, selectedIndex, true, audioPlaylist.isSearchResult(), System.currentTimeMillis());
+    }
+    
+    /**
+     * Passes clones of the stored tracks to the provided {@link AudioLoadResultHandler}.
+     *
+     * @param handler The {@link AudioLoadResultHandler} to notify.
+     */
+    public void dispatch(AudioLoadResultHandler handler) {
+        if (!playlist) {
+            handler.trackLoaded(tracks.get(0).makeClone());
+            return;
+        }
+        
+        List<AudioTrack> clonedTracks = Lists.newArrayListWithCapacity(tracks.size());
+        for (AudioTrack audioTrack : tracks) {
+            clonedTracks.add(audioTrack.makeClone());
+        }
+        
+        AudioTrack selectedTrack = selectedIndex >= 0 && selectedIndex < clonedTracks.size() ? clonedTracks.get(selectedIndex) : null;
+        handler.playlistLoaded(new BasicAudioPlaylist(name, clonedTracks, selectedTrack, searchResult));
+    }
+    
+    public String getName() {
+        return name;
+    }
+    
+    public List<AudioTrack> getTracks() {
+        return tracks;
+    }
+    
+    public int getSelectedIndex() {
+        return selectedIndex;
+    }
+    
+    public boolean isPlaylist() {
+        return playlist;
+    }
+    
+    public boolean isSearchResult() {
+        return searchResult;
+    }
+    
+    public long getCreationTime() {
+        return creationTime;
+    }
+}
\ No newline at end of file
@@ -0,0 +1,190 @@
+/*
+ * Copyright 2026 Alex Thomson
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.lxgaming.discordmusic.entity;
+
+import com.google.common.collect.Lists;
+import net.dv8tion.jda.api.entities.Message;
+import net.dv8tion.jda.api.entities.MessageChannel;
+import net.dv8tion.jda.api.entities.MessageEmbed;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Outbound messages of a channel waiting to be sent, errors are sent ahead of everything else.
+ *
+ * <p>At most one batch is in flight per channel, messages which arrive meanwhile are merged into the next batch.
+ * All methods synchronize on the queue.</p>
+ */
+public class MessageQueue {
+    
+    public static final int MAX_EMBEDS = 10;
+    
+    private final MessageChannel channel;
+    private final Deque<Entry> errors;
+    private final Deque<Entry> messages;
+    private boolean active;
+    
+    public MessageQueue(MessageChannel channel) {
+        this.channel = channel;
+        this.errors = new ArrayDeque<>();
+        this.messages = new ArrayDeque<>();
+    }
+    
+    /**
+     * Adds the entry to the queue.
+     *
+     * @param entry The {@link Entry} to send.
+     * @return {@code true} if the queue was idle and a flush must be scheduled, otherwise {@code false}.
+     */
+    public synchronized boolean offer(Entry entry) {
+        if (entry.isError()) {
+            errors.offer(entry);
+        } else {
+            messages.offer(entry);
+        }
+        
+        if (active) {
+            return false;
+        }
+        
+        active = true;
+        return true;
+    }
+    
+    /**
+     * Removes the next batch, consecutive entries are merged while they fit into a single message.
+     *
+     * @return The entries to send as one message, empty if the queue is now idle.
+     */
+    public synchronized List<Entry> poll() {
+        List<Entry> entries = Lists.newArrayList();
+        Entry entry = pollEntry();
+        if (entry == null) {
+            active = false;
+            return entries;
+        }
+        
+        entries.add(entry);
+        if (!entry.isMergeable()) {
+            return entries;
+        }
+        
+        int embeds = entry.getMessage().getEmbeds().size();
+        int length = getLength(entry.getMessage());
+        while (true) {
+            Entry next = peekEntry();
+            if (next == null || !next.isMergeable() || next.isTemporary() != entry.isTemporary()) {
+                break;
+            }
+            
+            embeds += next.getMessage().getEmbeds().size();
+            length += getLength(next.getMessage());
+            if (embeds > MAX_EMBEDS || length > MessageEmbed.EMBED_MAX_LENGTH_BOT) {
+                break;
+            }
+            
+            entries.add(pollEntry());
+        }
+        
+        return entries;
+    }
+    
+    public synchronized boolean isActive() {
+        return active;
+    }
+    
+    public synchronized int size() {
+        return errors.size() + messages.size();
+    }
+    
+    private Entry peekEntry() {
+        return !errors.isEmpty() ? errors.peek() : messages.peek();
+    }
+    
+    private Entry pollEntry() {
+        return !errors.isEmpty() ? errors.poll() : messages.poll();
+    }
+    
+    private static int getLength(Message message) {
+        int length = 0;
+        for (MessageEmbed messageEmbed : message.getEmbeds()) {
+            length += messageEmbed.getLength();
+        }
+        
+        return length;
+    }
+    
+    public MessageChannel getChannel() {
+        return channel;
+    }
+    
+    public static final class Entry {
+        
+        private final Message message;
+        private final boolean error;
+        private final boolean temporary;
+        private final Consumer<Message> success;
+        private final Consumer<Throwable> failure;
+        private final long queueTime;
+        
+        public Entry(Message message, boolean error, boolean temporary, Consumer<Message> success, Consumer<Throwable> failure) {
+            this.message = message;
+            this.error = error;
+            this.temporary = temporary;
+            this.success = success;
+            this.failure = failure;
+            this.queueTime = System.nanoTime();
+        }
+        
+        /**
+         * Entries without a success callback contain nothing but embeds, no caller depends on the {@link Message} they end up in.
+         */
+        public boolean isMergeable() {
+            return success == null
+                    && message.getContentRaw().isEmpty()
+                    && !message.getEmbeds().isEmpty()
+                    && message.getActionRows().isEmpty();
+        }
+        
+        public Message getMessage() {
+            return message;
+        }
+        
+        public boolean isError() {
+            return error;
+        }
+        
+        public boolean isTemporary() {
+            return temporary;
+        }
+        
+        public Consumer<Message> getSuccess() {
+            return success;
+        }
+        
+        public Consumer<Throwable> getFailure() {
+            return failure;
+        }
+        
+        public long getQueueTime() {
+            return queueTime;
+        }
+    }
+}
\ No newline at end of file
@@ -0,0 +1,106 @@
+/*
+ * Copyright 2026 Alex Thomson
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.lxgaming.discordmusic.entity;
+
+import net.dv8tion.jda.api.entities.Message;
+import net.dv8tion.jda.api.entities.MessageEmbed;
+
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * The "Now playing" message of a guild, edited in place whenever the track changes.
+ *
+ * <p>Only the latest embed is kept, updates which arrive while an edit is pending replace it rather than queueing another edit.</p>
+ */
+public class NowPlayingMessage {
+    
+    private final long guildId;
+    private final long channelId;
+    private final CompletableFuture<Message> message;
+    private MessageEmbed messageEmbed;
+    private long editTime;
+    private boolean editScheduled;
+    private boolean retired;
+    
+    public NowPlayingMessage(long guildId, long channelId) {
+        this.guildId = guildId;
+        this.channelId = channelId;
+        this.message = new CompletableFuture<>();
+        this.editTime = System.currentTimeMillis();
+    }
+    
+    /**
+     * Replaces the embed to display on the next edit.
+     *
+     * @param messageEmbed The {@link MessageEmbed} to display.
+     * @return {@code true} if an edit must be scheduled, {@code false} if one is already pending.
+     */
+    public synchronized boolean update(MessageEmbed messageEmbed) {
+        this.messageEmbed = messageEmbed;
+        if (editScheduled) {
+            return false;
+        }
+        
+        editScheduled = true;
+        return true;
+    }
+    
+    /**
+     * Removes the embed to display, called once the scheduled edit runs.
+     *
+     * @return The latest {@link MessageEmbed}.
+     */
+    public synchronized MessageEmbed poll() {
+        if (retired) {
+            return null;
+        }
+        
+        MessageEmbed messageEmbed = this.messageEmbed;
+        this.messageEmbed = null;
+        this.editScheduled = false;
+        this.editTime = System.currentTimeMillis();
+        return messageEmbed;
+    }
+    
+    /**
+     * Stops any further edits, a pending edit is dropped so it cannot display a track which is no longer playing.
+     */
+    public synchronized void retire() {
+        retired = true;
+        messageEmbed = null;
+    }
+    
+    public synchronized boolean isRetired() {
+        return retired;
+    }
+    
+    public long getGuildId() {
+        return guildId;
+    }
+    
+    public long getChannelId() {
+        return channelId;
+    }
+    
+    public CompletableFuture<Message> getMessage() {
+        return message;
+    }
+    
+    public synchronized long getEditTime() {
+        return editTime;
+    }
+}
\ No newline at end of file
@@ -0,0 +1,208 @@
+/*
+ * Copyright 2026 Alex Thomson
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.lxgaming.discordmusic.entity;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.Maps;
+import io.github.lxgaming.discordmusic.configuration.category.GuildCategory;
+import io.github.lxgaming.discordmusic.configuration.category.guild.RoleCategory;
+import io.github.lxgaming.discordmusic.configuration.category.guild.UserCategory;
+import net.dv8tion.jda.api.entities.Guild;
+import net.dv8tion.jda.api.entities.Member;
+import net.dv8tion.jda.api.entities.Role;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Permissions of a guild compiled from its {@link GuildCategory} and role hierarchy.
+ *
+ * <p>Members holding the same roles share a {@link RoleSet}, each permission is resolved once per role set.
+ * The index is discarded whenever the roles or the configured permissions of the guild change.</p>
+ */
+public class PermissionIndex {
+    
+    private final Map<Long, UserCategory> userCategories;
+    private final Map<Long, PermissionTree> userPermissions;
+    private final long[] roleIds;
+    private final RoleCategory[] roleCategories;
+    private final PermissionTree[] rolePermissions;
+    private final int publicRoleIndex;
+    private final Map<RoleKey, RoleSet> roleSets;
+    
+    private PermissionIndex(Map<Long, UserCategory> userCategories, Map<Long, PermissionTree> userPermissions, long[] roleIds, RoleCategory[] roleCategories, PermissionTree[] rolePermissions, int publicRoleIndex) {
+        this.userCategories = userCategories;
+        this.userPermissions = userPermissions;
+        this.roleIds = roleIds;
+        this.roleCategories = roleCategories;
+        this.rolePermissions = rolePermissions;
+        this.publicRoleIndex = publicRoleIndex;
+        this.roleSets = Maps.newConcurrentMap();
+    }
+    
+    public static PermissionIndex of(Guild guild, GuildCategory guildCategory) {
+        Map<Long, UserCategory> userCategories = Maps.newHashMap();
+        Map<Long, PermissionTree> userPermissions = Maps.newHashMap();
+        for (UserCategory userCategory : guildCategory.getUserCategories()) {
+            if (userCategories.putIfAbsent(userCategory.getId(), userCategory) == null) {
+                userPermissions.put(userCategory.getId(), PermissionTree.of(userCategory.getPermissions()));
+            }
+        }
+        
+        // Roles are ordered from highest to lowest, inheritance flows downwards
+        List<Role> roles = guild.getRoles();
+        long[] roleIds = new long[roles.size()];
+        RoleCategory[] orderedRoleCategories = new RoleCategory[roles.size()];
+        PermissionTree[] rolePermissions = new PermissionTree[roles.size()];
+        int publicRoleIndex = -1;
+        for (int index = 0; index < roles.size(); index++) {
+            Role role = roles.get(index);
+            roleIds[index] = role.getIdLong();
+            orderedRoleCategories[index] = guildCategory.getRoleCategory(role.getIdLong());
+            if (orderedRoleCategories[index] != null) {
+                rolePermissions[index] = PermissionTree.of(orderedRoleCategories[index].getPermissions());
+            }
+            
+            if (role.isPublicRole()) {
+                publicRoleIndex = index;
+            }
+        }
+        
+        return new PermissionIndex(userCategories, userPermissions, roleIds, orderedRoleCategories, rolePermissions, publicRoleIndex);
+    }
+    
+    /**
+     * Resolves the permission for the provided member, the {@link UserCategory} takes precedence over the roles.
+     *
+     * @param member The {@link Member} to check.
+     * @param permission The permission node.
+     * @return The value of the permission, {@code null} if it is not set.
+     */
+    public Boolean getPermission(Member member, String permission) {
+        PermissionTree userPermission = userPermissions.get(member.getIdLong());
+        if (userPermission != null) {
+            Boolean value = userPermission.get(permission);
+            if (value != null) {
+                return value;
+            }
+        }
+        
+        return getRoleSet(member).getPermission(permission);
+    }
+    
+    public UserCategory getUserCategory(Member member) {
+        return userCategories.get(member.getIdLong());
+    }
+    
+    public RoleSet getRoleSet(Member member) {
+        List<Role> roles = member.getRoles();
+        long[] memberRoleIds = new long[roles.size()];
+        for (int index = 0; index < roles.size(); index++) {
+            memberRoleIds[index] = roles.get(index).getIdLong();
+        }
+        
+        Arrays.sort(memberRoleIds);
+        return roleSets.computeIfAbsent(new RoleKey(memberRoleIds), this::createRoleSet);
+    }
+    
+    private RoleSet createRoleSet(RoleKey roleKey) {
+        ImmutableList.Builder<RoleCategory> categoryBuilder = ImmutableList.builder();
+        ImmutableList.Builder<PermissionTree> permissionBuilder = ImmutableList.builder();
+        boolean inherit = false;
+        for (int index = 0; index < roleIds.length; index++) {
+            RoleCategory roleCategory = roleCategories[index];
+            if (roleCategory == null) {
+                continue;
+            }
+            
+            if (Arrays.binarySearch(roleKey.roleIds, roleIds[index]) >= 0 || index == publicRoleIndex || (inherit && roleCategory.isInheritable())) {
+                categoryBuilder.add(roleCategory);
+                permissionBuilder.add(rolePermissions[index]);
+                inherit = true;
+            }
+        }
+        
+        return new RoleSet(categoryBuilder.build(), permissionBuilder.build());
+    }
+    
+    /**
+     * Sorted role ids of a member, the hash is computed once as every lookup builds a new key.
+     */
+    private static final class RoleKey {
+        
+        private final long[] roleIds;
+        private final int hashCode;
+        
+        private RoleKey(long[] roleIds) {
+            this.roleIds = roleIds;
+            this.hashCode = Arrays.hashCode(roleIds);
+        }
+        
+        @Override
+        public boolean equals(Object obj) {
+            if (this == obj) {
+                return true;
+            }
+            
+            if (obj == null || getClass() != obj.getClass()) {
+                return false;
+            }
+            
+            RoleKey roleKey = (RoleKey) obj;
+            return hashCode == roleKey.hashCode && Arrays.equals(roleIds, roleKey.roleIds);
+        }
+        
+        @Override
+        public int hashCode() {
+            return hashCode;
+        }
+    }
+    
+    public static final class RoleSet {
+        
+        private final List<RoleCategory> roleCategories;
+        private final List<PermissionTree> rolePermissions;
+        private final Map<String, Optional<Boolean>> permissions;
+        
+        private RoleSet(List<RoleCategory> roleCategories, List<PermissionTree> rolePermissions) {
+            this.roleCategories = roleCategories;
+            this.rolePermissions = rolePermissions;
+            this.permissions = Maps.newConcurrentMap();
+        }
+        
+        public Boolean getPermission(String permission) {
+            return permissions.computeIfAbsent(permission, this::resolve).orElse(null);
+        }
+        
+        private Optional<Boolean> resolve(String permission) {
+            for (PermissionTree rolePermission : rolePermissions) {
+                Boolean value = rolePermission.get(permission);
+                if (value != null) {
+                    return Optional.of(value);
+                }
+            }
+            
+            return Optional.empty();
+        }
+        
+        public List<RoleCategory> getRoleCategories() {
+            return roleCategories;
+        }
+    }
+}
\ No newline at end of file
@@ -0,0 +1,141 @@
+/*
+ * Copyright 2026 Alex Thomson
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.lxgaming.discordmusic.entity;
+
+import io.github.lxgaming.discordmusic.util.StringUtils;
+
+import java.util.Arrays;
+import java.util.Map;
+
+/**
+ * Permission nodes compiled into a trie of their dot separated segments.
+ *
+ * <p>A node ending in {@code *} applies to every descendant of its parent, {@code *} on its own applies to every node.
+ * The most specific match wins, an exact node takes precedence over the closest wildcard above it.
+ * Lookups compare segments in place so checking a permission does not allocate.</p>
+ */
+public class PermissionTree {
+    
+    public static final PermissionTree EMPTY = new PermissionTree(new Node());
+    private static final String WILDCARD = "*";
+    
+    private final Node root;
+    
+    private PermissionTree(Node root) {
+        this.root = root;
+    }
+    
+    public static PermissionTree of(Map<String, Boolean> permissions) {
+        if (permissions == null || permissions.isEmpty()) {
+            return EMPTY;
+        }
+        
+        Node root = new Node();
+        for (Map.Entry<String, Boolean> entry : permissions.entrySet()) {
+            if (entry.getKey() == null || entry.getValue() == null) {
+                continue;
+            }
+            
+            String[] segments = StringUtils.split(entry.getKey(), '.');
+            if (segments.length == 0) {
+                continue;
+            }
+            
+            boolean wildcard = segments[segments.length - 1].equals(WILDCARD);
+            int length = wildcard ? segments.length - 1 : segments.length;
+            Node node = root;
+            for (int index = 0; index < length; index++) {
+                node = node.getOrCreateChild(segments[index]);
+            }
+            
+            if (wildcard) {
+                node.wildcard = entry.getValue();
+            } else {
+                node.value = entry.getValue();
+            }
+        }
+        
+        return new PermissionTree(root);
+    }
+    
+    /**
+     * Resolves the most specific value for the provided permission.
+     *
+     * @param permission The permission node.
+     * @return The value of the permission, {@code null} if neither the node nor a wildcard above it is set.
+     */
+    public Boolean get(String permission) {
+        Boolean value = root.wildcard;
+        Node node = root;
+        int start = 0;
+        while (true) {
+            int end = permission.indexOf('.', start);
+            node = node.getChild(permission, start, end != -1 ? end : permission.length());
+            if (node == null) {
+                return value;
+            }
+            
+            if (end == -1) {
+                return node.value != null ? node.value : value;
+            }
+            
+            if (node.wildcard != null) {
+                value = node.wildcard;
+            }
+            
+            start = end + 1;
+        }
+    }
+    
+    /**
+     * Children are held in parallel arrays, nodes have few children so a scan is cheaper than hashing a substring.
+     */
+    private static final class Node {
+        
+        private String[] keys = new String[0];
+        private Node[] children = new Node[0];
+        private Boolean value;
+        private Boolean wildcard;
+        
+        private Node getChild(String permission, int start, int end) {
+            int length = end - start;
+            for (int index = 0; index < keys.length; index++) {
+                String key = keys[index];
+                if (key.length() == length && permission.regionMatches(start, key, 0, length)) {
+                    return children[index];
+                }
+            }
+            
+            return null;
+        }
+        
+        private Node getOrCreateChild(String key) {
+            for (int index = 0; index < keys.length; index++) {
+                if (keys[index].equals(key)) {
+                    return children[index];
+                }
+            }
+            
+            Node node = new Node();
+            keys = Arrays.copyOf(keys, keys.length + 1);
+            keys[keys.length - 1] = key;
+            children = Arrays.copyOf(children, children.length + 1);
+            children[children.length - 1] = node;
+            return node;
+        }
+    }
+}
\ No newline at end of file
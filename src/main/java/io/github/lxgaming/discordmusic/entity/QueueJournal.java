@@ -0,0 +1,188 @@
+/*
+ * Copyright 2026 Alex Thomson
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.lxgaming.discordmusic.entity;
+
+import com.sedmelluq.discord.lavaplayer.tools.io.MessageOutput;
+import com.sedmelluq.discord.lavaplayer.track.AudioTrack;
+import io.github.lxgaming.discordmusic.DiscordMusic;
+import io.github.lxgaming.discordmusic.manager.AudioManager;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.zip.CRC32;
+
+/**
+ * Buffers {@link AudioQueue} mutations for a guild until they are appended to the journal file.
+ *
+ * <p>Each record is framed as {@code [length][crc32][payload]} so a torn write at the end of the file is detected on replay.</p>
+ */
+public class QueueJournal {
+    
+    public static final byte ADD = 1;
+    public static final byte REMOVE = 2;
+    public static final byte CLEAR = 3;
+    public static final byte PLAYING = 4;
+    public static final byte POSITION = 5;
+    
+    private final long guildId;
+    private final ByteArrayOutputStream pending;
+    private final ByteArrayOutputStream payload;
+    private final DataOutputStream payloadOutput;
+    private final CRC32 checksum;
+    private int records;
+    private long positionTime;
+    private boolean compactRequired;
+    
+    public QueueJournal(long guildId) {
+        this.guildId = guildId;
+        this.pending = new ByteArrayOutputStream();
+        this.payload = new ByteArrayOutputStream();
+        this.payloadOutput = new DataOutputStream(this.payload);
+        this.checksum = new CRC32();
+    }
+    
+    public synchronized void add(int index, AudioTrack audioTrack) {
+        try {
+            payloadOutput.writeByte(ADD);
+            payloadOutput.writeInt(index);
+            writeTrack(audioTrack);
+            commit();
+        } catch (Exception ex) {
+            rollback(ex);
+        }
+    }
+    
+    public synchronized void remove(int index) {
+        try {
+            payloadOutput.writeByte(REMOVE);
+            payloadOutput.writeInt(index);
+            commit();
+        } catch (Exception ex) {
+            rollback(ex);
+        }
+    }
+    
+    public synchronized void clear() {
+        try {
+            payloadOutput.writeByte(CLEAR);
+            commit();
+        } catch (Exception ex) {
+            rollback(ex);
+        }
+    }
+    
+    public synchronized void playing(AudioTrack audioTrack) {
+        try {
+            payloadOutput.writeByte(PLAYING);
+            payloadOutput.writeBoolean(audioTrack != null);
+            if (audioTrack != null) {
+                writeTrack(audioTrack);
+            }
+            
+            commit();
+            positionTime = System.currentTimeMillis();
+        } catch (Exception ex) {
+            rollback(ex);
+        }
+    }
+    
+    public synchronized void position(long position) {
+        try {
+            payloadOutput.writeByte(POSITION);
+            payloadOutput.writeLong(position);
+            commit();
+            positionTime = System.currentTimeMillis();
+        } catch (Exception ex) {
+            rollback(ex);
+        }
+    }
+    
+    /**
+     * Removes and returns the framed records which have not been written yet.
+     *
+     * @return The pending records, empty if there are none.
+     */
+    public synchronized byte[] drain() {
+        byte[] bytes = pending.toByteArray();
+        pending.reset();
+        return bytes;
+    }
+    
+    /**
+     * Discards the pending records, called once the journal file has been replaced by a snapshot.
+     *
+     * @param records The number of records in the snapshot.
+     */
+    public synchronized void reset(int records) {
+        this.pending.reset();
+        this.records = records;
+        this.compactRequired = false;
+    }
+    
+    private void writeTrack(AudioTrack audioTrack) throws IOException {
+        AudioTrackData trackData = AudioManager.getData(audioTrack).orElse(null);
+        payloadOutput.writeLong(trackData != null ? trackData.getChannel().getIdLong() : 0L);
+        payloadOutput.writeLong(trackData != null ? trackData.getUser().getIdLong() : 0L);
+        
+        ByteArrayOutputStream trackOutput = new ByteArrayOutputStream();
+        AudioManager.AUDIO_PLAYER_MANAGER.encodeTrack(new MessageOutput(trackOutput), audioTrack);
+        payloadOutput.writeInt(trackOutput.size());
+        trackOutput.writeTo(payloadOutput);
+    }
+    
+    private void commit() throws IOException {
+        payloadOutput.flush();
+        checksum.reset();
+        checksum.update(payload.toByteArray());
+        
+        DataOutputStream output = new DataOutputStream(pending);
+        output.writeInt(payload.size());
+        output.writeInt((int) checksum.getValue());
+        payload.writeTo(output);
+        output.flush();
+        payload.reset();
+        records++;
+    }
+    
+    private void rollback(Exception ex) {
+        payload.reset();
+        // The journal no longer matches the queue, rewrite it from the queue on the next flush
+        compactRequired = true;
+        DiscordMusic.getInstance().getLogger().error("Encountered an error while journaling {}", guildId, ex);
+    }
+    
+    public long getGuildId() {
+        return guildId;
+    }
+    
+    public synchronized int getRecords() {
+        return records;
+    }
+    
+    public synchronized long getPositionTime() {
+        return positionTime;
+    }
+    
+    public synchronized boolean isCompactRequired() {
+        return compactRequired;
+    }
+    
+    public synchronized void setCompactRequired(boolean compactRequired) {
+        this.compactRequired = compactRequired;
+    }
+}
\ No newline at end of file
@@ -0,0 +1,48 @@
+/*
+ * Copyright 2026 Alex Thomson
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.lxgaming.discordmusic.entity;
+
+/**
+ * A message awaiting deletion, only the ids are retained so no JDA entity is kept alive.
+ */
+public final class TemporaryMessage {
+    
+    private final long channelId;
+    private final long messageId;
+    private final long deadline;
+    
+    public TemporaryMessage(long channelId, long messageId, long deadline) {
+        this.channelId = channelId;
+        this.messageId = messageId;
+        this.deadline = deadline;
+    }
+    
+    public long getChannelId() {
+        return channelId;
+    }
+    
+    public long getMessageId() {
+        return messageId;
+    }
+    
+    /**
+     * @return The time in milliseconds at which the message is deleted.
+     */
+    public long getDeadline() {
+        return deadline;
+    }
+}
\ No newline at end of file
@@ -0,0 +1,177 @@
+/*
+ * Copyright 2026 Alex Thomson
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.lxgaming.discordmusic.entity;
+
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Hashed timer wheel keyed by id, deadlines are rounded up to the next tick so nothing expires early.
+ *
+ * <p>Scheduling and cancelling are O(1), advancing visits one bucket per elapsed tick.
+ * All methods synchronize on the wheel.</p>
+ *
+ * @param <T> The type of the scheduled values.
+ */
+public class TimerWheel<T> {
+    
+    private final long tickDuration;
+    private final long startTime;
+    private final Node<T>[] buckets;
+    private final int mask;
+    private final Map<Long, Node<T>> nodes;
+    private long tick;
+    
+    @SuppressWarnings("unchecked")
+    public TimerWheel(long tickDuration, int ticksPerWheel, long startTime) {
+        if (tickDuration <= 0L) {
+            throw new IllegalArgumentException("TickDuration must be positive");
+        }
+        
+        if (ticksPerWheel <= 0 || ticksPerWheel > (1 << 30)) {
+            throw new IllegalArgumentException("TicksPerWheel is out of bounds");
+        }
+        
+        int length = Integer.highestOneBit(ticksPerWheel);
+        if (length < ticksPerWheel) {
+            length <<= 1;
+        }
+        
+        this.tickDuration = tickDuration;
+        this.startTime = startTime;
+        this.buckets = (Node<T>[]) new Node[length];
+        this.mask = length - 1;
+        this.nodes = Maps.newHashMap();
+    }
+    
+    /**
+     * Schedules the value to expire at the deadline, replacing any value already scheduled for the id.
+     *
+     * @param id The id used to cancel the value.
+     * @param value The value to schedule.
+     * @param deadline The time in milliseconds at which the value expires.
+     */
+    public synchronized void schedule(long id, T value, long deadline) {
+        cancel(id);
+        long deadlineTick = Math.max(Math.floorDiv(deadline - startTime + tickDuration - 1, tickDuration), tick);
+        Node<T> node = new Node<>(id, value, (deadlineTick - tick) / buckets.length, (int) (deadlineTick & mask));
+        node.next = buckets[node.bucket];
+        if (node.next != null) {
+            node.next.previous = node;
+        }
+        
+        buckets[node.bucket] = node;
+        nodes.put(id, node);
+    }
+    
+    /**
+     * Cancels the value scheduled for the id.
+     *
+     * @param id The id of the value.
+     * @return The cancelled value, {@code null} if nothing was scheduled for the id.
+     */
+    public synchronized T cancel(long id) {
+        Node<T> node = nodes.remove(id);
+        if (node == null) {
+            return null;
+        }
+        
+        unlink(node);
+        return node.value;
+    }
+    
+    /**
+     * Advances the wheel up to the provided time.
+     *
+     * @param currentTime The current time in milliseconds.
+     * @return The values which expired, in no particular order.
+     */
+    public synchronized List<T> advance(long currentTime) {
+        List<T> values = Lists.newArrayList();
+        long currentTick = Math.floorDiv(currentTime - startTime, tickDuration);
+        while (tick <= currentTick) {
+            Node<T> node = buckets[(int) (tick & mask)];
+            while (node != null) {
+                Node<T> next = node.next;
+                if (node.rounds <= 0L) {
+                    unlink(node);
+                    nodes.remove(node.id);
+                    values.add(node.value);
+                } else {
+                    node.rounds--;
+                }
+                
+                node = next;
+            }
+            
+            tick++;
+        }
+        
+        return values;
+    }
+    
+    /**
+     * @return A copy of the scheduled values, in no particular order.
+     */
+    public synchronized List<T> getValues() {
+        List<T> values = Lists.newArrayListWithCapacity(nodes.size());
+        for (Node<T> node : nodes.values()) {
+            values.add(node.value);
+        }
+        
+        return values;
+    }
+    
+    public synchronized int size() {
+        return nodes.size();
+    }
+    
+    private void unlink(Node<T> node) {
+        if (node.previous != null) {
+            node.previous.next = node.next;
+        } else {
+            buckets[node.bucket] = node.next;
+        }
+        
+        if (node.next != null) {
+            node.next.previous = node.previous;
+        }
+        
+        node.previous = null;
+        node.next = null;
+    }
+    
+    private static final class Node<T> {
+        
+        private final long id;
+        private final T value;
+        private final int bucket;
+        private long rounds;
+        private Node<T> previous;
+        private Node<T> next;
+        
+        private Node(long id, T value, long rounds, int bucket) {
+            this.id = id;
+            this.value = value;
+            this.rounds = rounds;
+            this.bucket = bucket;
+        }
+    }
+}
\ No newline at end of file
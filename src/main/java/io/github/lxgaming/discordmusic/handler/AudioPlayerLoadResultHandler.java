@@ -56,4 +56,8 @@ public final class AudioPlayerLoadResultHandler implements AudioLoadResultHandle
     public void loadFailed(FriendlyException exception) {
         AudioManager.exception(trackData.getChannel(), exception);
     }
+    
+    public AudioTrackData getTrackData() {
+        return trackData;
+    }
 }
\ No newline at end of file
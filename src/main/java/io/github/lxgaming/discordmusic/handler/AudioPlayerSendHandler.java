@@ -16,32 +16,72 @@
 
 package io.github.lxgaming.discordmusic.handler;
 
+import com.sedmelluq.discord.lavaplayer.format.StandardAudioDataFormats;
 import com.sedmelluq.discord.lavaplayer.player.AudioPlayer;
 import com.sedmelluq.discord.lavaplayer.track.playback.MutableAudioFrame;
+import io.github.lxgaming.discordmusic.util.Toolbox;
 import net.dv8tion.jda.api.audio.AudioSendHandler;
 
 import java.nio.ByteBuffer;
+import java.util.concurrent.atomic.AtomicLong;
 
 public final class AudioPlayerSendHandler implements AudioSendHandler {
     
-    private final AudioPlayer audioPlayer;
-    private final ByteBuffer byteBuffer;
-    private final MutableAudioFrame audioFrame;
+    private static volatile boolean allocationTracking;
+    private static volatile long allocationOverhead;
+    private volatile AudioPlayer audioPlayer;
+    private volatile boolean discard;
+    private final ByteBuffer[] byteBuffers;
+    private final MutableAudioFrame[] audioFrames;
+    private final AtomicLong providedFrames;
+    private final AtomicLong missedFrames;
+    private final AtomicLong underruns;
+    private final AtomicLong trackedFrames;
+    private final AtomicLong allocatedBytes;
     
-    public AudioPlayerSendHandler(AudioPlayer audioPlayer) {
+    // Only accessed from the JDA audio thread
+    private int head;
+    private int size;
+    
+    public AudioPlayerSendHandler(AudioPlayer audioPlayer, int bufferDepth) {
         this.audioPlayer = audioPlayer;
-        this.byteBuffer = ByteBuffer.allocate(1024);
-        this.audioFrame = new MutableAudioFrame();
-        this.audioFrame.setBuffer(this.byteBuffer);
+        this.byteBuffers = new ByteBuffer[bufferDepth + 1];
+        this.audioFrames = new MutableAudioFrame[bufferDepth + 1];
+        for (int index = 0; index < this.byteBuffers.length; index++) {
+            // JDA encrypts from the backing array, a direct buffer would only be copied into a heap buffer.
+            this.byteBuffers[index] = ByteBuffer.allocate(StandardAudioDataFormats.DISCORD_OPUS.maximumChunkSize());
+            this.audioFrames[index] = new MutableAudioFrame();
+            this.audioFrames[index].setBuffer(this.byteBuffers[index]);
+        }
+        
+        this.providedFrames = new AtomicLong();
+        this.missedFrames = new AtomicLong();
+        this.underruns = new AtomicLong();
+        this.trackedFrames = new AtomicLong();
+        this.allocatedBytes = new AtomicLong();
     }
     
     @Override
     public boolean canProvide() {
-        return audioPlayer.provide(audioFrame);
+        if (!allocationTracking) {
+            return fill();
+        }
+        
+        long allocatedBytes = Toolbox.getAllocatedBytes();
+        boolean provided = fill();
+        if (allocatedBytes != -1L) {
+            this.allocatedBytes.addAndGet(Math.max(Toolbox.getAllocatedBytes() - allocatedBytes - allocationOverhead, 0L));
+            this.trackedFrames.incrementAndGet();
+        }
+        
+        return provided;
     }
     
     @Override
     public ByteBuffer provide20MsAudio() {
+        ByteBuffer byteBuffer = byteBuffers[head];
+        head = (head + 1) % byteBuffers.length;
+        size--;
         return (ByteBuffer) byteBuffer.flip();
     }
     
@@ -49,4 +89,117 @@ public final class AudioPlayerSendHandler implements AudioSendHandler {
     public boolean isOpus() {
         return true;
     }
-}
\ No newline at end of file
+    
+    /**
+     * Tops up the buffer from the {@link AudioPlayer} and reports whether a frame is ready to be sent.
+     *
+     * <p>Nothing is sent while the {@link AudioPlayer} is paused, buffered frames are kept so playback resumes where it stopped.</p>
+     *
+     * @return {@code true} if a frame is available, otherwise {@code false}.
+     */
+    private boolean fill() {
+        if (discard) {
+            discard = false;
+            head = 0;
+            size = 0;
+        }
+        
+        AudioPlayer audioPlayer = this.audioPlayer;
+        if (audioPlayer.isPaused()) {
+            return false;
+        }
+        
+        while (size < byteBuffers.length) {
+            if (!audioPlayer.provide(audioFrames[(head + size) % byteBuffers.length])) {
+                if (audioPlayer.getPlayingTrack() != null) {
+                    missedFrames.incrementAndGet();
+                }
+                
+                break;
+            }
+            
+            providedFrames.incrementAndGet();
+            size++;
+        }
+        
+        if (size != 0) {
+            return true;
+        }
+        
+        if (audioPlayer.getPlayingTrack() != null) {
+            underruns.incrementAndGet();
+        }
+        
+        return false;
+    }
+    
+    /**
+     * Prepares this handler for reuse by another guild.
+     *
+     * <p>Buffered frames are discarded on the JDA audio thread the next time a frame is requested.</p>
+     */
+    public void reset() {
+        discard = true;
+        providedFrames.set(0L);
+        missedFrames.set(0L);
+        underruns.set(0L);
+        trackedFrames.set(0L);
+        allocatedBytes.set(0L);
+    }
+    
+    /**
+     * Discards the buffered frames on the JDA audio thread the next time a frame is requested, called when a track is replaced or stopped.
+     */
+    public void discard() {
+        discard = true;
+    }
+    
+    public static boolean isAllocationTracking() {
+        return allocationTracking;
+    }
+    
+    public static void setAllocationTracking(boolean allocationTracking) {
+        if (allocationTracking) {
+            // Calibrated off the JDA audio thread
+            AudioPlayerSendHandler.allocationOverhead = Toolbox.getAllocationOverhead();
+        }
+        
+        AudioPlayerSendHandler.allocationTracking = allocationTracking;
+    }
+    
+    public AudioPlayer getAudioPlayer() {
+        return audioPlayer;
+    }
+    
+    public void setAudioPlayer(AudioPlayer audioPlayer) {
+        this.audioPlayer = audioPlayer;
+    }
+    
+    public long getProvidedFrames() {
+        return providedFrames.get();
+    }
+    
+    public long getMissedFrames() {
+        return missedFrames.get();
+    }
+    
+    public long getUnderruns() {
+        return underruns.get();
+    }
+    
+    public int getBufferDepth() {
+        return byteBuffers.length - 1;
+    }
+    
+    public int getBufferSize() {
+        return size;
+    }
+    
+    public long getTrackedFrames() {
+        return trackedFrames.get();
+    }
+    
+    public long getAllocatedBytes() {
+        return allocatedBytes.get();
+    }
+}
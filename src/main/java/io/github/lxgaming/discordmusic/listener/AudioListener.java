@@ -24,6 +24,7 @@ import com.sedmelluq.discord.lavaplayer.track.AudioTrackEndReason;
 import io.github.lxgaming.discordmusic.DiscordMusic;
 import io.github.lxgaming.discordmusic.entity.AudioTrackData;
 import io.github.lxgaming.discordmusic.manager.AudioManager;
+import io.github.lxgaming.discordmusic.manager.JournalManager;
 
 public class AudioListener extends AudioEventAdapter {
     
@@ -40,20 +41,37 @@ public class AudioListener extends AudioEventAdapter {
     @Override
     public void onTrackStart(AudioPlayer player, AudioTrack track) {
         DiscordMusic.getInstance().getLogger().debug("Track start - {} ({})", track.getInfo().title, track.getInfo().uri);
+        AudioManager.getData(track)
+                .map(AudioTrackData::getGuild)
+                .filter(guild -> AudioManager.isActive(player, guild))
+                .ifPresent(guild -> JournalManager.playing(guild, track));
     }
     
     @Override
     public void onTrackEnd(AudioPlayer player, AudioTrack track, AudioTrackEndReason endReason) {
         DiscordMusic.getInstance().getLogger().debug("Track end - {} - {} ({})", endReason.name(), track.getInfo().title, track.getInfo().uri);
+        AudioManager.getData(track)
+                .map(AudioTrackData::getGuild)
+                .filter(guild -> AudioManager.isActive(player, guild))
+                .ifPresent(guild -> JournalManager.playing(guild, null));
+        
         if (endReason.mayStartNext) {
-            AudioManager.getData(track).map(AudioTrackData::getGuild).ifPresent(AudioManager::playNext);
+            AudioManager.getData(track)
+                    .map(AudioTrackData::getGuild)
+                    .filter(guild -> AudioManager.isActive(player, guild))
+                    .ifPresent(AudioManager::playNext);
         }
     }
     
     @Override
     public void onTrackException(AudioPlayer player, AudioTrack track, FriendlyException exception) {
         DiscordMusic.getInstance().getLogger().debug("Track exception - {} - {} ({})", exception.getMessage(), track.getInfo().title, track.getInfo().uri);
-        AudioManager.getData(track).map(AudioTrackData::getChannel).ifPresent(channel -> AudioManager.exception(channel, exception));
+        
+        // Prefetch failures are reported once the track is played
+        AudioManager.getData(track)
+                .filter(data -> data.getGuild() == null || AudioManager.isActive(player, data.getGuild()))
+                .map(AudioTrackData::getChannel)
+                .ifPresent(channel -> AudioManager.exception(channel, exception));
     }
     
     @Override
@@ -16,7 +16,6 @@
 
 package io.github.lxgaming.discordmusic.listener;
 
-import com.google.common.collect.Sets;
 import com.sedmelluq.discord.lavaplayer.source.AudioSourceManagers;
 import io.github.lxgaming.discordmusic.DiscordMusic;
 import io.github.lxgaming.discordmusic.configuration.Config;
@@ -25,6 +24,8 @@ import io.github.lxgaming.discordmusic.configuration.category.GuildCategory;
 import io.github.lxgaming.discordmusic.manager.AudioManager;
 import io.github.lxgaming.discordmusic.manager.CommandManager;
 import io.github.lxgaming.discordmusic.manager.DiscordManager;
+import io.github.lxgaming.discordmusic.manager.JournalManager;
+import io.github.lxgaming.discordmusic.manager.LoadManager;
 import io.github.lxgaming.discordmusic.manager.MessageManager;
 import io.github.lxgaming.discordmusic.manager.TaskManager;
 import io.github.lxgaming.discordmusic.util.StringUtils;
@@ -33,7 +34,6 @@ import net.dv8tion.jda.api.entities.ApplicationInfo;
 import net.dv8tion.jda.api.entities.ChannelType;
 import net.dv8tion.jda.api.entities.Guild;
 import net.dv8tion.jda.api.events.ReadyEvent;
-import net.dv8tion.jda.api.events.guild.GuildJoinEvent;
 import net.dv8tion.jda.api.events.guild.GuildLeaveEvent;
 import net.dv8tion.jda.api.events.guild.voice.GuildVoiceJoinEvent;
 import net.dv8tion.jda.api.events.guild.voice.GuildVoiceLeaveEvent;
@@ -41,6 +41,9 @@ import net.dv8tion.jda.api.events.guild.voice.GuildVoiceMoveEvent;
 import net.dv8tion.jda.api.events.message.MessageBulkDeleteEvent;
 import net.dv8tion.jda.api.events.message.MessageDeleteEvent;
 import net.dv8tion.jda.api.events.message.MessageReceivedEvent;
+import net.dv8tion.jda.api.events.role.RoleCreateEvent;
+import net.dv8tion.jda.api.events.role.RoleDeleteEvent;
+import net.dv8tion.jda.api.events.role.update.RoleUpdatePositionEvent;
 import net.dv8tion.jda.api.hooks.SubscribeEvent;
 
 public class DiscordListener {
@@ -54,21 +57,27 @@ public class DiscordListener {
             
             if (category.getId() != id || !StringUtils.equals(category.getName(), name)) {
                 DiscordMusic.getInstance().getLogger().info("Account {} ({}) -> {} ({})", category.getName(), category.getId(), name, id);
-                category.setId(id);
-                category.setName(name);
+                synchronized (DiscordMusic.getInstance().getConfiguration().getLock()) {
+                    category.setId(id);
+                    category.setName(name);
+                }
             }
             
             if (category.getOwnerId() == 0L) {
                 ApplicationInfo applicationInfo = event.getJDA().retrieveApplicationInfo().complete();
                 DiscordMusic.getInstance().getLogger().info("OwnerId {} -> {}", category.getOwnerId(), applicationInfo.getOwner().getIdLong());
-                category.setOwnerId(applicationInfo.getOwner().getIdLong());
+                synchronized (DiscordMusic.getInstance().getConfiguration().getLock()) {
+                    category.setOwnerId(applicationInfo.getOwner().getIdLong());
+                }
             }
         }
         
         AudioSourceManagers.registerRemoteSources(AudioManager.AUDIO_PLAYER_MANAGER);
+        LoadManager.restoreCache();
+        MessageManager.restoreMessages();
         for (Guild guild : event.getJDA().getGuilds()) {
-            AudioManager.register(guild);
-            DiscordManager.register(guild);
+            JournalManager.replay(guild);
+            AudioManager.autoJoin(guild);
         }
         
         DiscordMusic.getInstance().getConfiguration().saveConfiguration();
@@ -80,29 +89,40 @@ public class DiscordListener {
             return;
         }
         
-        if (event.isFromType(ChannelType.TEXT)) {
+        if (event.isFromType(ChannelType.TEXT) && CommandManager.isCommand(event.getMessage())) {
             TaskManager.schedule(() -> CommandManager.execute(event.getMessage()));
         }
     }
     
     @SubscribeEvent
     public void onMessageDelete(MessageDeleteEvent event) {
-        MessageManager.removeMessages(Sets.newHashSet(event.getMessageId()));
+        MessageManager.removeMessage(event.getMessageIdLong());
     }
     
     @SubscribeEvent
     public void onMessageBulkDelete(MessageBulkDeleteEvent event) {
-        MessageManager.removeMessages(event.getMessageIds());
+        MessageManager.removeMessages(event.getChannel().getIdLong(), event.getMessageIds());
     }
     
     @SubscribeEvent
-    public void onGuildJoin(GuildJoinEvent event) {
-        AudioManager.register(event.getGuild());
+    public void onGuildLeave(GuildLeaveEvent event) {
+        AudioManager.unregister(event.getGuild());
+        DiscordManager.unregister(event.getGuild());
     }
     
     @SubscribeEvent
-    public void onGuildLeave(GuildLeaveEvent event) {
-        AudioManager.unregister(event.getGuild());
+    public void onRoleCreate(RoleCreateEvent event) {
+        DiscordManager.invalidatePermissions(event.getGuild());
+    }
+    
+    @SubscribeEvent
+    public void onRoleDelete(RoleDeleteEvent event) {
+        DiscordManager.invalidatePermissions(event.getGuild());
+    }
+    
+    @SubscribeEvent
+    public void onRoleUpdatePosition(RoleUpdatePositionEvent event) {
+        DiscordManager.invalidatePermissions(event.getGuild());
     }
     
     @SubscribeEvent
@@ -110,9 +130,9 @@ public class DiscordListener {
         DiscordMusic.getInstance().getLogger().debug("GuildVoiceJoinEvent - Joined: {} ({})",
                 event.getChannelJoined().getName(), event.getChannelJoined().getMembers().size());
         
+        // Voice activity alone never creates a GuildCategory, guilds which have not used the bot have nothing to act on
         GuildCategory guildCategory = DiscordManager.getGuildCategory(event.getGuild());
         if (guildCategory == null) {
-            DiscordMusic.getInstance().getLogger().warn("GuildCategory is unavailable");
             return;
         }
         
@@ -134,7 +154,6 @@ public class DiscordListener {
         
         GuildCategory guildCategory = DiscordManager.getGuildCategory(event.getGuild());
         if (guildCategory == null) {
-            DiscordMusic.getInstance().getLogger().warn("GuildCategory is unavailable");
             return;
         }
         
@@ -160,7 +179,6 @@ public class DiscordListener {
         
         GuildCategory guildCategory = DiscordManager.getGuildCategory(event.getGuild());
         if (guildCategory == null) {
-            DiscordMusic.getInstance().getLogger().warn("GuildCategory is unavailable");
             return;
         }
         
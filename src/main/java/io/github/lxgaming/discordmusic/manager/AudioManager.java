@@ -17,47 +17,84 @@
 package io.github.lxgaming.discordmusic.manager;
 
 import com.google.common.collect.Lists;
+import com.google.common.collect.MapMaker;
 import com.google.common.collect.Maps;
 import com.google.common.collect.Queues;
+import com.google.common.collect.Sets;
 import com.jagrosh.jdautilities.menu.OrderedMenu;
 import com.sedmelluq.discord.lavaplayer.player.AudioPlayer;
 import com.sedmelluq.discord.lavaplayer.player.AudioPlayerManager;
 import com.sedmelluq.discord.lavaplayer.player.DefaultAudioPlayerManager;
 import com.sedmelluq.discord.lavaplayer.tools.FriendlyException;
+import com.sedmelluq.discord.lavaplayer.tools.Units;
 import com.sedmelluq.discord.lavaplayer.track.AudioPlaylist;
 import com.sedmelluq.discord.lavaplayer.track.AudioTrack;
+import com.sedmelluq.discord.lavaplayer.track.playback.NonAllocatingAudioFrameBuffer;
 import io.github.lxgaming.discordmusic.DiscordMusic;
 import io.github.lxgaming.discordmusic.configuration.Config;
+import io.github.lxgaming.discordmusic.configuration.ConfigSnapshot;
 import io.github.lxgaming.discordmusic.configuration.category.GeneralCategory;
 import io.github.lxgaming.discordmusic.configuration.category.GuildCategory;
 import io.github.lxgaming.discordmusic.configuration.category.MessageCategory;
+import io.github.lxgaming.discordmusic.entity.AudioPlayerReference;
+import io.github.lxgaming.discordmusic.entity.AudioQueue;
 import io.github.lxgaming.discordmusic.entity.AudioTrackData;
 import io.github.lxgaming.discordmusic.entity.Color;
+import io.github.lxgaming.discordmusic.entity.NowPlayingMessage;
 import io.github.lxgaming.discordmusic.handler.AudioPlayerSendHandler;
 import io.github.lxgaming.discordmusic.listener.AudioListener;
 import io.github.lxgaming.discordmusic.menu.ReactionMenu;
 import io.github.lxgaming.discordmusic.util.StringUtils;
+import io.github.lxgaming.discordmusic.util.Toolbox;
 import net.dv8tion.jda.api.EmbedBuilder;
+import net.dv8tion.jda.api.MessageBuilder;
+import net.dv8tion.jda.api.audio.AudioSendHandler;
 import net.dv8tion.jda.api.audio.SpeakingMode;
 import net.dv8tion.jda.api.entities.Guild;
 import net.dv8tion.jda.api.entities.Member;
+import net.dv8tion.jda.api.entities.Message;
 import net.dv8tion.jda.api.entities.MessageChannel;
+import net.dv8tion.jda.api.entities.MessageEmbed;
 import net.dv8tion.jda.api.entities.VoiceChannel;
 
+import java.lang.ref.Reference;
+import java.lang.ref.ReferenceQueue;
 import java.util.Arrays;
+import java.util.Deque;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
-import java.util.concurrent.BlockingQueue;
+import java.util.Set;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
 
 public final class AudioManager {
     
     public static final AudioPlayerManager AUDIO_PLAYER_MANAGER = new DefaultAudioPlayerManager();
+    private static final int PLAYLIST_BATCH_SIZE = 100;
+    private static final long NOW_PLAYING_EDIT_INTERVAL = 1000L; // 1 Second
+    private static final long NOW_PLAYING_RETENTION = TimeUnit.DAYS.toMillis(1L);
     private static final AudioListener AUDIO_LISTENER = new AudioListener();
     private static final Map<Long, AudioPlayer> AUDIO_PLAYERS = Maps.newConcurrentMap();
-    private static final Map<Long, BlockingQueue<AudioTrack>> AUDIO_QUEUES = Maps.newConcurrentMap();
+    private static final Map<Long, AudioQueue> AUDIO_QUEUES = Maps.newConcurrentMap();
     private static final Map<Long, Map<AudioTrackData, List<AudioTrack>>> SEARCH_RESULTS = Maps.newConcurrentMap();
+    private static final Map<Long, AudioPlayer> PREFETCH_PLAYERS = Maps.newConcurrentMap();
+    private static final Map<Long, AudioTrack> PREFETCH_TRACKS = Maps.newConcurrentMap();
+    private static final Map<Long, Long> ACTIVITY_TIMES = Maps.newConcurrentMap();
+    private static final Map<Long, NowPlayingMessage> NOW_PLAYING_MESSAGES = Maps.newConcurrentMap();
+    private static final Deque<AudioPlayerSendHandler> SEND_HANDLER_POOL = Queues.newConcurrentLinkedDeque();
+    private static final Set<AudioPlayerReference> PLAYER_REFERENCES = Sets.newConcurrentHashSet();
+    private static final Map<AudioPlayer, AudioPlayerReference> PLAYER_REFERENCE_INDEX = new MapMaker().weakKeys().makeMap(); // Identity, does not keep leaked players reachable
+    private static final ReferenceQueue<AudioPlayer> PLAYER_REFERENCE_QUEUE = new ReferenceQueue<>();
+    private static final AtomicLong PREFETCH_HITS = new AtomicLong();
+    private static final AtomicLong PREFETCH_MISSES = new AtomicLong();
+    private static final AtomicLong CREATED_PLAYERS = new AtomicLong();
+    private static final AtomicLong REUSED_PLAYERS = new AtomicLong();
+    private static final AtomicLong DESTROYED_PLAYERS = new AtomicLong();
+    private static final AtomicLong LEAKED_PLAYERS = new AtomicLong();
+    private static final AtomicLong NOW_PLAYING_SENDS = new AtomicLong();
+    private static final AtomicLong NOW_PLAYING_EDITS = new AtomicLong();
     
     public static void prepare() {
         GeneralCategory generalCategory = DiscordMusic.getInstance().getConfig().map(Config::getGeneralCategory).orElseThrow(NullPointerException::new);
@@ -86,72 +123,295 @@ public final class AudioManager {
             generalCategory.setTrackStuckThreshold(GeneralCategory.DEFAULT_TRACK_STUCK_THRESHOLD);
         }
         
+        if (generalCategory.getIdleTimeout() < 0L) {
+            DiscordMusic.getInstance().getLogger().warn("IdleTimeout is out of bounds. Resetting to {}", GeneralCategory.DEFAULT_IDLE_TIMEOUT);
+            generalCategory.setIdleTimeout(GeneralCategory.DEFAULT_IDLE_TIMEOUT);
+        }
+        
+        if (generalCategory.getPrefetchThreshold() < 0 || generalCategory.getPrefetchThreshold() > 30000) {
+            DiscordMusic.getInstance().getLogger().warn("PrefetchThreshold is out of bounds. Resetting to {}", GeneralCategory.DEFAULT_PREFETCH_THRESHOLD);
+            // LavaPlayer stops tracks on players which have not been polled for the PlayerCleanupThreshold (60 Seconds)
+            generalCategory.setPrefetchThreshold(GeneralCategory.DEFAULT_PREFETCH_THRESHOLD);
+        }
+        
+        if (generalCategory.getBufferDepth() < 0 || generalCategory.getBufferDepth() > 50) {
+            DiscordMusic.getInstance().getLogger().warn("BufferDepth is out of bounds. Resetting to {}", GeneralCategory.DEFAULT_BUFFER_DEPTH);
+            generalCategory.setBufferDepth(GeneralCategory.DEFAULT_BUFFER_DEPTH);
+        }
+        
+        if (generalCategory.getPlayerPoolSize() < 0) {
+            DiscordMusic.getInstance().getLogger().warn("PlayerPoolSize is out of bounds. Resetting to {}", GeneralCategory.DEFAULT_PLAYER_POOL_SIZE);
+            generalCategory.setPlayerPoolSize(GeneralCategory.DEFAULT_PLAYER_POOL_SIZE);
+        }
+        
         AUDIO_PLAYER_MANAGER.setTrackStuckThreshold(generalCategory.getTrackStuckThreshold());
+        if (generalCategory.isNonAllocatingBuffer()) {
+            AUDIO_PLAYER_MANAGER.getConfiguration().setFrameBufferFactory(NonAllocatingAudioFrameBuffer::new);
+        }
+        
+        AudioPlayerSendHandler.setAllocationTracking(generalCategory.isDebug());
     }
     
-    public static void register(Guild guild) {
-        if (AUDIO_PLAYERS.containsKey(guild.getIdLong())) {
-            DiscordMusic.getInstance().getLogger().warn("{} ({}) AudioPlayer is already registered", guild.getName(), guild.getIdLong());
-            return;
+    public static synchronized AudioPlayer register(Guild guild) {
+        AudioPlayer existingAudioPlayer = AUDIO_PLAYERS.get(guild.getIdLong());
+        if (existingAudioPlayer != null) {
+            return existingAudioPlayer;
         }
         
-        AudioPlayer audioPlayer = AUDIO_PLAYER_MANAGER.createPlayer();
-        audioPlayer.addListener(AUDIO_LISTENER);
-        guild.getAudioManager().setSendingHandler(new AudioPlayerSendHandler(audioPlayer));
-        
+        AudioPlayerSendHandler sendHandler;
         Config config = DiscordMusic.getInstance().getConfig().orElse(null);
         if (config != null) {
-            audioPlayer.setVolume(Math.min(config.getGeneralCategory().getDefaultVolume(), config.getGeneralCategory().getMaxVolume()));
+            sendHandler = acquireSendHandler(guild, config.getGeneralCategory().getBufferDepth());
+            sendHandler.getAudioPlayer().setVolume(Math.min(config.getGeneralCategory().getDefaultVolume(), config.getGeneralCategory().getMaxVolume()));
             guild.getAudioManager().setSpeakingMode(config.getAccountCategory().getSpeakingMode());
         } else {
-            audioPlayer.setVolume(GeneralCategory.DEFAULT_VOLUME);
+            sendHandler = acquireSendHandler(guild, GeneralCategory.DEFAULT_BUFFER_DEPTH);
+            sendHandler.getAudioPlayer().setVolume(GeneralCategory.DEFAULT_VOLUME);
             guild.getAudioManager().setSpeakingMode(SpeakingMode.VOICE);
         }
         
+        AudioPlayer audioPlayer = sendHandler.getAudioPlayer();
+        guild.getAudioManager().setSendingHandler(sendHandler);
+        AudioQueue audioQueue = new AudioQueue();
+        JournalManager.register(guild, audioQueue);
+        AUDIO_QUEUES.put(guild.getIdLong(), audioQueue);
+        SEARCH_RESULTS.put(guild.getIdLong(), Maps.newConcurrentMap());
+        ACTIVITY_TIMES.put(guild.getIdLong(), System.currentTimeMillis());
+        AUDIO_PLAYERS.put(guild.getIdLong(), audioPlayer);
+        DiscordMusic.getInstance().getLogger().debug("{} ({}) AudioPlayer registered", guild.getName(), guild.getIdLong());
+        return audioPlayer;
+    }
+    
+    public static synchronized void unregister(Guild guild) {
+        AudioPlayer audioPlayer = AUDIO_PLAYERS.remove(guild.getIdLong());
+        if (audioPlayer == null) {
+            return;
+        }
+        
+        AudioPlayerSendHandler sendHandler = getSendHandler(guild);
+        guild.getAudioManager().setSendingHandler(null);
+        if (guild.getAudioManager().isConnected()) {
+            guild.getAudioManager().closeAudioConnection();
+        }
+        
+        AUDIO_QUEUES.remove(guild.getIdLong());
+        JournalManager.unregister(guild);
+        LoadManager.cancel(guild);
+        SEARCH_RESULTS.remove(guild.getIdLong());
+        ACTIVITY_TIMES.remove(guild.getIdLong());
+        retireNowPlaying(guild.getIdLong());
+        PREFETCH_TRACKS.remove(guild.getIdLong());
+        AudioPlayer prefetchPlayer = PREFETCH_PLAYERS.remove(guild.getIdLong());
+        if (prefetchPlayer != null) {
+            destroy(prefetchPlayer);
+        }
+        
+        if (sendHandler != null && sendHandler.getAudioPlayer() == audioPlayer) {
+            release(sendHandler);
+        } else {
+            destroy(audioPlayer);
+        }
+        
+        DiscordMusic.getInstance().getLogger().debug("{} ({}) AudioPlayer unregistered", guild.getName(), guild.getIdLong());
+    }
+    
+    public static void autoJoin(Guild guild) {
         GuildCategory guildCategory = DiscordManager.getGuildCategory(guild);
-        if (guildCategory != null && guildCategory.getAutoJoinChannel() != 0L) {
-            VoiceChannel voiceChannel = guild.getVoiceChannelById(guildCategory.getAutoJoinChannel());
-            if (voiceChannel != null) {
-                try {
-                    guild.getAudioManager().openAudioConnection(voiceChannel);
-                } catch (Exception ex) {
-                    DiscordMusic.getInstance().getLogger().error("Encountered an error while connecting to {} ({}): {}", voiceChannel.getName(), voiceChannel.getIdLong(), ex.getMessage());
-                }
-            } else {
-                DiscordMusic.getInstance().getLogger().warn("AutoJoinChannel does not exist");
-                guildCategory.setAutoJoinChannel(0L);
+        if (guildCategory == null || guildCategory.getAutoJoinChannel() == 0L) {
+            return;
+        }
+        
+        VoiceChannel voiceChannel = guild.getVoiceChannelById(guildCategory.getAutoJoinChannel());
+        if (voiceChannel == null) {
+            DiscordMusic.getInstance().getLogger().warn("AutoJoinChannel does not exist");
+            guildCategory.setAutoJoinChannel(0L);
+            return;
+        }
+        
+        register(guild);
+        
+        try {
+            guild.getAudioManager().openAudioConnection(voiceChannel);
+        } catch (Exception ex) {
+            DiscordMusic.getInstance().getLogger().error("Encountered an error while connecting to {} ({}): {}", voiceChannel.getName(), voiceChannel.getIdLong(), ex.getMessage());
+        }
+    }
+    
+    /**
+     * Unregisters guilds which have not played or queued anything for the idle timeout
+     * and are not connected to a voice channel.
+     */
+    public static void evict() {
+        long idleTimeout = DiscordMusic.getInstance().getConfig().map(Config::getGeneralCategory).map(GeneralCategory::getIdleTimeout).orElse(0L);
+        if (idleTimeout <= 0L) {
+            return;
+        }
+        
+        long currentTime = System.currentTimeMillis();
+        for (Map.Entry<Long, Long> entry : ACTIVITY_TIMES.entrySet()) {
+            if (currentTime - entry.getValue() < idleTimeout) {
+                continue;
+            }
+            
+            Guild guild = AccountManager.getJDA().getGuildById(entry.getKey());
+            if (guild == null) {
+                continue;
             }
+            
+            AudioPlayer audioPlayer = AUDIO_PLAYERS.get(entry.getKey());
+            AudioQueue audioQueue = AUDIO_QUEUES.get(entry.getKey());
+            if ((audioPlayer != null && audioPlayer.getPlayingTrack() != null)
+                    || (audioQueue != null && !audioQueue.isEmpty())
+                    || guild.getAudioManager().isConnected()) {
+                entry.setValue(currentTime);
+                continue;
+            }
+            
+            unregister(guild);
+        }
+    }
+    
+    /**
+     * Reports {@link AudioPlayer}s which were garbage collected without being destroyed.
+     */
+    public static void detectLeaks() {
+        Reference<? extends AudioPlayer> reference;
+        while ((reference = PLAYER_REFERENCE_QUEUE.poll()) != null) {
+            if (!PLAYER_REFERENCES.remove(reference)) {
+                continue;
+            }
+            
+            AudioPlayerReference playerReference = (AudioPlayerReference) reference;
+            LEAKED_PLAYERS.incrementAndGet();
+            DiscordMusic.getInstance().getLogger().warn("AudioPlayer for {} was never released ({} after creation)",
+                    playerReference.getGuildId(),
+                    Toolbox.getDuration(System.currentTimeMillis() - playerReference.getCreationTime(), TimeUnit.MILLISECONDS, true));
+        }
+    }
+    
+    public static void shutdown() {
+        AudioPlayerSendHandler sendHandler;
+        while ((sendHandler = SEND_HANDLER_POOL.poll()) != null) {
+            destroy(sendHandler.getAudioPlayer());
         }
         
-        AUDIO_PLAYERS.put(guild.getIdLong(), audioPlayer);
-        AUDIO_QUEUES.put(guild.getIdLong(), Queues.newLinkedBlockingQueue());
-        SEARCH_RESULTS.put(guild.getIdLong(), Maps.newConcurrentMap());
+        AUDIO_PLAYERS.values().forEach(AudioManager::destroy);
+        AUDIO_PLAYERS.clear();
+        PREFETCH_PLAYERS.values().forEach(AudioManager::destroy);
+        PREFETCH_PLAYERS.clear();
+        AUDIO_PLAYER_MANAGER.shutdown();
     }
     
-    public static void unregister(Guild guild) {
-        AUDIO_PLAYERS.remove(guild.getIdLong());
-        AUDIO_QUEUES.remove(guild.getIdLong());
-        SEARCH_RESULTS.remove(guild.getIdLong());
+    private static AudioPlayer createAudioPlayer(long guildId) {
+        AudioPlayer audioPlayer = AUDIO_PLAYER_MANAGER.createPlayer();
+        audioPlayer.addListener(AUDIO_LISTENER);
+        
+        AudioPlayerReference reference = new AudioPlayerReference(audioPlayer, PLAYER_REFERENCE_QUEUE);
+        reference.setGuildId(guildId);
+        PLAYER_REFERENCES.add(reference);
+        PLAYER_REFERENCE_INDEX.put(audioPlayer, reference);
+        CREATED_PLAYERS.incrementAndGet();
+        return audioPlayer;
+    }
+    
+    private static AudioPlayerSendHandler acquireSendHandler(Guild guild, int bufferDepth) {
+        AudioPlayerSendHandler sendHandler;
+        while ((sendHandler = SEND_HANDLER_POOL.poll()) != null) {
+            // Pooled before the BufferDepth was changed
+            if (sendHandler.getBufferDepth() != bufferDepth) {
+                destroy(sendHandler.getAudioPlayer());
+                continue;
+            }
+            
+            AudioPlayerReference reference = PLAYER_REFERENCE_INDEX.get(sendHandler.getAudioPlayer());
+            if (reference != null) {
+                reference.setGuildId(guild.getIdLong());
+            }
+            
+            REUSED_PLAYERS.incrementAndGet();
+            return sendHandler;
+        }
+        
+        return new AudioPlayerSendHandler(createAudioPlayer(guild.getIdLong()), bufferDepth);
+    }
+    
+    /**
+     * Returns the {@link AudioPlayerSendHandler} and its {@link AudioPlayer} to the pool, or destroys the {@link AudioPlayer} if the pool is full.
+     *
+     * @param sendHandler The {@link AudioPlayerSendHandler} which is no longer attached to a guild.
+     */
+    private static void release(AudioPlayerSendHandler sendHandler) {
+        AudioPlayer audioPlayer = sendHandler.getAudioPlayer();
+        int playerPoolSize = DiscordMusic.getInstance().getConfig().map(Config::getGeneralCategory).map(GeneralCategory::getPlayerPoolSize).orElse(0);
+        if (SEND_HANDLER_POOL.size() >= playerPoolSize) {
+            destroy(audioPlayer);
+            return;
+        }
+        
+        audioPlayer.stopTrack();
+        audioPlayer.setPaused(false);
+        audioPlayer.setFilterFactory(null);
+        sendHandler.reset();
+        SEND_HANDLER_POOL.offer(sendHandler);
+    }
+    
+    private static void destroy(AudioPlayer audioPlayer) {
+        audioPlayer.destroy();
+        AudioPlayerReference reference = PLAYER_REFERENCE_INDEX.remove(audioPlayer);
+        if (reference != null && PLAYER_REFERENCES.remove(reference)) {
+            reference.clear();
+            DESTROYED_PLAYERS.incrementAndGet();
+        }
     }
     
     public static boolean pause(Guild guild) {
         AudioPlayer audioPlayer = AudioManager.getAudioPlayer(guild);
+        if (audioPlayer == null) {
+            return false;
+        }
+        
         audioPlayer.setPaused(true);
         return true;
     }
     
     public static boolean play(Guild guild) {
         AudioPlayer audioPlayer = AudioManager.getAudioPlayer(guild);
+        if (audioPlayer == null) {
+            return false;
+        }
+        
         audioPlayer.setPaused(false);
         if (audioPlayer.getPlayingTrack() == null) {
-            return playNext(audioPlayer, getAudioQueue(guild).poll());
+            return playNext(guild);
         }
         
         return true;
     }
     
     public static boolean playNext(Guild guild) {
-        return playNext(AudioManager.getAudioPlayer(guild), getAudioQueue(guild).poll());
+        AudioQueue audioQueue = getAudioQueue(guild);
+        if (audioQueue == null) {
+            return false;
+        }
+        
+        ACTIVITY_TIMES.computeIfPresent(guild.getIdLong(), (key, value) -> System.currentTimeMillis());
+        AudioPlayer audioPlayer = getAudioPlayer(guild);
+        boolean replaced = audioPlayer != null && audioPlayer.getPlayingTrack() != null;
+        AudioTrack audioTrack = audioQueue.poll();
+        boolean playing;
+        if (audioTrack == null) {
+            retireNowPlaying(guild.getIdLong());
+            playing = playNext(audioPlayer, null);
+        } else {
+            playing = playPrefetch(guild, audioTrack) || playNext(AudioManager.getAudioPlayer(guild), audioTrack);
+        }
+        
+        // A track which finished on its own has already been fully buffered, only a replaced track is cut short
+        if (replaced) {
+            discard(guild);
+        }
+        
+        return playing;
     }
     
     public static boolean playNext(AudioPlayer audioPlayer, AudioTrack audioTrack) {
@@ -166,18 +426,253 @@ public final class AudioManager {
         }
         
         audioPlayer.playTrack(audioTrack);
+        nowPlaying(trackData, audioTrack);
+        return true;
+    }
+    
+    /**
+     * Starts decoding the next queued track on a paused secondary {@link AudioPlayer} for every guild
+     * whose current track is within the prefetch threshold of ending.
+     */
+    public static void prefetch() {
+        int prefetchThreshold = DiscordMusic.getInstance().getConfig().map(Config::getGeneralCategory).map(GeneralCategory::getPrefetchThreshold).orElse(0);
+        if (prefetchThreshold <= 0) {
+            return;
+        }
         
+        for (Map.Entry<Long, AudioPlayer> entry : AUDIO_PLAYERS.entrySet()) {
+            AudioTrack playingTrack = entry.getValue().getPlayingTrack();
+            if (playingTrack == null || playingTrack.getInfo().isStream || playingTrack.getDuration() == Units.DURATION_MS_UNKNOWN) {
+                continue;
+            }
+            
+            if (playingTrack.getDuration() - playingTrack.getPosition() > prefetchThreshold) {
+                continue;
+            }
+            
+            AudioQueue audioQueue = AUDIO_QUEUES.get(entry.getKey());
+            if (audioQueue == null) {
+                continue;
+            }
+            
+            // noinspection SynchronizationOnLocalVariableOrMethodParameter
+            synchronized (audioQueue) {
+                AudioTrack audioTrack = audioQueue.peek();
+                AudioTrack prefetchTrack = PREFETCH_TRACKS.get(entry.getKey());
+                if (audioTrack == null || audioTrack == prefetchTrack || audioTrack.getInfo().isStream) {
+                    continue;
+                }
+                
+                // The queue changed since the previous prefetch
+                if (prefetchTrack != null) {
+                    PREFETCH_MISSES.incrementAndGet();
+                }
+                
+                AudioPlayer prefetchPlayer = PREFETCH_PLAYERS.computeIfAbsent(entry.getKey(), AudioManager::createAudioPlayer);
+                AudioTrack clonedTrack = audioTrack.makeClone();
+                clonedTrack.setUserData(audioTrack.getUserData());
+                prefetchPlayer.setPaused(true);
+                prefetchPlayer.playTrack(clonedTrack);
+                PREFETCH_TRACKS.put(entry.getKey(), audioTrack);
+                DiscordMusic.getInstance().getLogger().debug("Prefetching {} ({})", audioTrack.getInfo().title, audioTrack.getInfo().uri);
+            }
+        }
+    }
+    
+    /**
+     * Swaps the warm prefetch {@link AudioPlayer} in as the active player if it is decoding the provided {@link AudioTrack}.
+     *
+     * @param guild The {@link Guild} to swap players for.
+     * @param audioTrack The {@link AudioTrack} that is due to be played.
+     * @return {@code true} if the prefetched track is now playing, otherwise {@code false}.
+     */
+    private static boolean playPrefetch(Guild guild, AudioTrack audioTrack) {
+        AudioQueue audioQueue = getAudioQueue(guild);
+        if (audioQueue == null) {
+            return false;
+        }
+        
+        // noinspection SynchronizationOnLocalVariableOrMethodParameter
+        synchronized (audioQueue) {
+            // Nothing was prefetched, a cold start is not a miss
+            AudioTrack prefetchTrack = PREFETCH_TRACKS.remove(guild.getIdLong());
+            if (prefetchTrack == null) {
+                return false;
+            }
+            
+            AudioPlayer prefetchPlayer = PREFETCH_PLAYERS.get(guild.getIdLong());
+            if (prefetchPlayer == null) {
+                PREFETCH_MISSES.incrementAndGet();
+                return false;
+            }
+            
+            AudioTrack playingTrack = prefetchPlayer.getPlayingTrack();
+            AudioTrackData trackData = getData(audioTrack).orElse(null);
+            AudioPlayerSendHandler sendHandler = getSendHandler(guild);
+            if (prefetchTrack != audioTrack || playingTrack == null || trackData == null || sendHandler == null) {
+                prefetchPlayer.stopTrack();
+                PREFETCH_MISSES.incrementAndGet();
+                return false;
+            }
+            
+            AudioPlayer audioPlayer = getAudioPlayer(guild);
+            prefetchPlayer.setVolume(audioPlayer.getVolume());
+            AUDIO_PLAYERS.put(guild.getIdLong(), prefetchPlayer);
+            PREFETCH_PLAYERS.put(guild.getIdLong(), audioPlayer);
+            sendHandler.setAudioPlayer(prefetchPlayer);
+            prefetchPlayer.setPaused(audioPlayer.isPaused());
+            audioPlayer.stopTrack();
+            audioPlayer.setPaused(true);
+            PREFETCH_HITS.incrementAndGet();
+            JournalManager.playing(guild, playingTrack);
+            nowPlaying(trackData, playingTrack);
+            return true;
+        }
+    }
+    
+    /**
+     * Displays the track in the guild's "Now playing" message, a new message is only sent for the first track or when the channel changes.
+     *
+     * <p>Edits are throttled to one per {@link #NOW_PLAYING_EDIT_INTERVAL}, rapid skips only display the latest track.</p>
+     */
+    private static void nowPlaying(AudioTrackData trackData, AudioTrack audioTrack) {
         EmbedBuilder embedBuilder = new EmbedBuilder();
         embedBuilder.setColor(MessageManager.getColor(Color.DEFAULT));
         embedBuilder.setTitle("Now playing");
         embedBuilder.getDescriptionBuilder().append("[").append(audioTrack.getInfo().title).append("](").append(audioTrack.getInfo().uri).append(")");
-        MessageManager.sendTemporaryMessage(trackData.getChannel(), embedBuilder.build());
-        return true;
+        MessageEmbed messageEmbed = embedBuilder.build();
+        
+        long guildId = trackData.getGuild().getIdLong();
+        long channelId = trackData.getChannel().getIdLong();
+        NowPlayingMessage newNowPlayingMessage = new NowPlayingMessage(guildId, channelId);
+        AtomicReference<NowPlayingMessage> previousNowPlayingMessage = new AtomicReference<>();
+        
+        // Concurrent track starts agree on a single message per guild
+        NowPlayingMessage nowPlayingMessage = NOW_PLAYING_MESSAGES.compute(guildId, (key, value) -> {
+            if (value != null && value.getChannelId() == channelId) {
+                return value;
+            }
+            
+            previousNowPlayingMessage.set(value);
+            return newNowPlayingMessage;
+        });
+        
+        if (nowPlayingMessage != newNowPlayingMessage) {
+            if (nowPlayingMessage.update(messageEmbed)) {
+                long delay = Math.max(nowPlayingMessage.getEditTime() + NOW_PLAYING_EDIT_INTERVAL - System.currentTimeMillis(), 0L);
+                TaskManager.SCHEDULED_EXECUTOR_SERVICE.schedule(() -> editNowPlaying(nowPlayingMessage), delay, TimeUnit.MILLISECONDS);
+            }
+            
+            return;
+        }
+        
+        if (previousNowPlayingMessage.get() != null) {
+            retireNowPlaying(previousNowPlayingMessage.get());
+        }
+        
+        NOW_PLAYING_SENDS.incrementAndGet();
+        MessageManager.sendMessage(trackData.getChannel(), new MessageBuilder().setEmbeds(messageEmbed).build(), message -> {
+            // noinspection SynchronizationOnLocalVariableOrMethodParameter
+            synchronized (newNowPlayingMessage) {
+                if (!newNowPlayingMessage.isRetired()) {
+                    retainNowPlaying(message);
+                }
+            }
+            
+            newNowPlayingMessage.getMessage().complete(message);
+        }, failure -> {
+            NOW_PLAYING_MESSAGES.remove(guildId, newNowPlayingMessage);
+            newNowPlayingMessage.getMessage().completeExceptionally(failure);
+            DiscordMusic.getInstance().getLogger().error("Encountered an error while sending now playing message", failure);
+        });
+    }
+    
+    private static void editNowPlaying(NowPlayingMessage nowPlayingMessage) {
+        MessageEmbed messageEmbed = nowPlayingMessage.poll();
+        if (messageEmbed == null) {
+            return;
+        }
+        
+        nowPlayingMessage.getMessage().thenAccept(message -> {
+            // Retired while the message was still being sent
+            if (nowPlayingMessage.isRetired()) {
+                return;
+            }
+            
+            NOW_PLAYING_EDITS.incrementAndGet();
+            message.editMessageEmbeds(messageEmbed).queue(success -> {
+                // The retire deadline takes precedence over the retention of a live message
+                // noinspection SynchronizationOnLocalVariableOrMethodParameter
+                synchronized (nowPlayingMessage) {
+                    if (!nowPlayingMessage.isRetired()) {
+                        retainNowPlaying(message);
+                    }
+                }
+            }, failure -> {
+                // The message was most likely deleted, the next track sends a new one
+                NOW_PLAYING_MESSAGES.remove(nowPlayingMessage.getGuildId(), nowPlayingMessage);
+                DiscordMusic.getInstance().getLogger().debug("Failed to edit now playing message for {}", nowPlayingMessage.getGuildId(), failure);
+            });
+        });
+    }
+    
+    /**
+     * Records the live "Now playing" message in the temporary message registry with a distant deadline.
+     *
+     * <p>The message is still deleted after a restart or crash, when {@link #retireNowPlaying(long)} never runs.</p>
+     */
+    private static void retainNowPlaying(Message message) {
+        ConfigSnapshot snapshot = DiscordMusic.getInstance().getConfiguration().getSnapshot();
+        if (snapshot != null && snapshot.isDeleteMessages()) {
+            MessageManager.addTemporaryMessage(message, System.currentTimeMillis() + NOW_PLAYING_RETENTION);
+        }
+    }
+    
+    /**
+     * Reschedules the guild's "Now playing" message in the temporary message pipeline once it is no longer being updated.
+     */
+    private static void retireNowPlaying(long guildId) {
+        NowPlayingMessage nowPlayingMessage = NOW_PLAYING_MESSAGES.remove(guildId);
+        if (nowPlayingMessage != null) {
+            retireNowPlaying(nowPlayingMessage);
+        }
+    }
+    
+    private static void retireNowPlaying(NowPlayingMessage nowPlayingMessage) {
+        nowPlayingMessage.retire();
+        long retireTime = System.currentTimeMillis();
+        nowPlayingMessage.getMessage().thenAccept(message -> {
+            ConfigSnapshot snapshot = DiscordMusic.getInstance().getConfiguration().getSnapshot();
+            if (snapshot != null && snapshot.isDeleteMessages()) {
+                // The message may have been displayed for longer than the delete interval, measure it from now
+                MessageManager.addTemporaryMessage(message, retireTime);
+            } else {
+                MessageManager.removeMessage(message.getIdLong());
+            }
+        });
+    }
+    
+    /**
+     * Stops the current track without starting the next one, frames which are already buffered are not sent.
+     */
+    public static void stop(Guild guild) {
+        AudioPlayer audioPlayer = getAudioPlayer(guild);
+        if (audioPlayer != null) {
+            audioPlayer.stopTrack();
+            discard(guild);
+        }
+    }
+    
+    private static void discard(Guild guild) {
+        AudioPlayerSendHandler sendHandler = getSendHandler(guild);
+        if (sendHandler != null) {
+            sendHandler.discard();
+        }
     }
     
     public static boolean canPlayNext(Guild guild) {
         AudioPlayer audioPlayer = AudioManager.getAudioPlayer(guild);
-        return (audioPlayer.getPlayingTrack() == null || audioPlayer.getPlayingTrack().getInfo().isStream) && guild.getAudioManager().isConnected();
+        return audioPlayer != null && (audioPlayer.getPlayingTrack() == null || audioPlayer.getPlayingTrack().getInfo().isStream) && guild.getAudioManager().isConnected();
     }
     
     public static void exception(MessageChannel channel, FriendlyException exception) {
@@ -186,7 +681,7 @@ public final class AudioManager {
         embedBuilder.setTitle("Encountered an error");
         embedBuilder.getDescriptionBuilder().append(StringUtils.defaultIfBlank(exception.getMessage(), "Unknown"));
         embedBuilder.setFooter("Details available in console", null);
-        MessageManager.sendTemporaryMessage(channel, embedBuilder.build());
+        MessageManager.sendTemporaryErrorMessage(channel, embedBuilder.build());
     }
     
     public static void playlist(AudioPlaylist audioPlaylist) throws IllegalArgumentException {
@@ -242,7 +737,10 @@ public final class AudioManager {
                 });
                 menuBuilder.setFinalAction(message -> {
                     message.delete().queue();
-                    getSearchResults(message.getGuild()).remove(entry.getKey());
+                    Map<AudioTrackData, List<AudioTrack>> searchResults = getSearchResults(message.getGuild());
+                    if (searchResults != null) {
+                        searchResults.remove(entry.getKey());
+                    }
                 });
                 menuBuilder.setEventWaiter(AccountManager.EVENT_WAITER);
                 DiscordMusic.getInstance().getConfig()
@@ -251,7 +749,7 @@ public final class AudioManager {
                         .ifPresent(timeout -> menuBuilder.setTimeout(timeout, TimeUnit.MILLISECONDS));
                 menuBuilder.build().display(entry.getKey().getChannel(), embedBuilder.build());
                 
-                getSearchResults(entry.getKey().getGuild()).put(entry.getKey(), entry.getValue());
+                getOrCreateSearchResults(entry.getKey().getGuild()).put(entry.getKey(), entry.getValue());
             }
             
             return;
@@ -263,42 +761,66 @@ public final class AudioManager {
         }
         
         if (!audioPlaylist.getTracks().isEmpty()) {
-            Map<AudioTrackData, List<AudioTrack>> data = Maps.newHashMap();
-            for (AudioTrack audioTrack : audioPlaylist.getTracks()) {
-                AudioTrackData audioTrackData = getData(audioTrack).orElse(null);
-                if (audioTrackData == null) {
-                    DiscordMusic.getInstance().getLogger().warn("AudioTrack from AudioPlaylist is missing AudioTrackData");
-                    continue;
-                }
-                
-                // noinspection Convert2MethodRef
-                data.computeIfAbsent(audioTrackData, key -> Lists.newArrayList()).add(audioTrack);
+            long startTime = System.currentTimeMillis();
+            List<AudioTrack> audioTracks = audioPlaylist.getTracks();
+            AudioTrackData trackData = getData(audioTracks.get(0)).orElse(null);
+            if (trackData == null) {
+                DiscordMusic.getInstance().getLogger().warn("AudioTrack from AudioPlaylist is missing AudioTrackData");
+                return;
             }
             
-            for (Map.Entry<AudioTrackData, List<AudioTrack>> entry : data.entrySet()) {
-                for (AudioTrack audioTrack : entry.getValue()) {
-                    getAudioQueue(entry.getKey().getGuild()).offer(audioTrack);
-                }
-                
-                EmbedBuilder embedBuilder = new EmbedBuilder();
-                embedBuilder.setColor(MessageManager.getColor(Color.SUCCESS));
-                embedBuilder.setTitle(entry.getValue().size() + " tracks added to queue");
-                MessageManager.sendTemporaryMessage(entry.getKey().getChannel(), embedBuilder.build());
-                
-                if (canPlayNext(entry.getKey().getGuild())) {
-                    playNext(entry.getKey().getGuild());
-                }
+            // Start playback before the rest of the playlist is queued
+            AudioQueue audioQueue = getOrCreateAudioQueue(trackData.getGuild());
+            long generation = audioQueue.getGeneration();
+            audioQueue.offer(audioTracks.get(0));
+            if (canPlayNext(trackData.getGuild())) {
+                playNext(trackData.getGuild());
             }
             
+            DiscordMusic.getInstance().getLogger().debug("Playlist {} started in {}ms", audioPlaylist.getName(), System.currentTimeMillis() - startTime);
+            TaskManager.schedule(() -> enqueue(trackData, audioQueue, generation, audioTracks, startTime));
             return;
         }
         
         DiscordMusic.getInstance().getLogger().warn("Failed to handle AudioPlaylist");
     }
     
+    /**
+     * Appends the remaining tracks of a playlist in batches, a single message reports the final count.
+     *
+     * <p>Batches keep the queue monitor free for playback between them, appending takes milliseconds so no progress is displayed.
+     * Stops early if the queue is cleared or the guild is unregistered.</p>
+     */
+    private static void enqueue(AudioTrackData trackData, AudioQueue audioQueue, long generation, List<AudioTrack> audioTracks, long startTime) {
+        int addedTracks = 1;
+        for (int index = 1; index < audioTracks.size(); index += PLAYLIST_BATCH_SIZE) {
+            List<AudioTrack> batch = audioTracks.subList(index, Math.min(index + PLAYLIST_BATCH_SIZE, audioTracks.size()));
+            if (getAudioQueue(trackData.getGuild()) != audioQueue || !audioQueue.addAll(batch, generation)) {
+                break;
+            }
+            
+            addedTracks += batch.size();
+            if (canPlayNext(trackData.getGuild())) {
+                playNext(trackData.getGuild());
+            }
+        }
+        
+        DiscordMusic.getInstance().getLogger().debug("Playlist enqueued {} of {} tracks in {}ms", addedTracks, audioTracks.size(), System.currentTimeMillis() - startTime);
+        
+        EmbedBuilder embedBuilder = new EmbedBuilder();
+        embedBuilder.setColor(MessageManager.getColor(addedTracks == audioTracks.size() ? Color.SUCCESS : Color.WARNING));
+        if (addedTracks == audioTracks.size()) {
+            embedBuilder.setTitle(addedTracks + " tracks added to queue");
+        } else {
+            embedBuilder.setTitle(addedTracks + " of " + audioTracks.size() + " tracks added to queue");
+        }
+        
+        MessageManager.sendTemporaryMessage(trackData.getChannel(), embedBuilder.build());
+    }
+    
     public static void track(AudioTrack audioTrack) throws IllegalArgumentException {
         AudioTrackData trackData = getData(audioTrack).orElseThrow(() -> new IllegalArgumentException("AudioTrack is missing TrackData"));
-        getAudioQueue(trackData.getGuild()).offer(audioTrack);
+        getOrCreateAudioQueue(trackData.getGuild()).offer(audioTrack);
         if (canPlayNext(trackData.getGuild())) {
             playNext(trackData.getGuild());
             return;
@@ -311,15 +833,83 @@ public final class AudioManager {
         MessageManager.sendTemporaryMessage(trackData.getChannel(), embedBuilder.build());
     }
     
+    public static boolean isActive(AudioPlayer audioPlayer, Guild guild) {
+        return getAudioPlayer(guild) == audioPlayer;
+    }
+    
+    public static long getPrefetchHits() {
+        return PREFETCH_HITS.get();
+    }
+    
+    public static long getPrefetchMisses() {
+        return PREFETCH_MISSES.get();
+    }
+    
+    public static int getLivePlayers() {
+        return PLAYER_REFERENCES.size();
+    }
+    
+    public static int getPooledPlayers() {
+        return SEND_HANDLER_POOL.size();
+    }
+    
+    public static long getCreatedPlayers() {
+        return CREATED_PLAYERS.get();
+    }
+    
+    public static long getReusedPlayers() {
+        return REUSED_PLAYERS.get();
+    }
+    
+    public static long getDestroyedPlayers() {
+        return DESTROYED_PLAYERS.get();
+    }
+    
+    public static long getLeakedPlayers() {
+        return LEAKED_PLAYERS.get();
+    }
+    
+    public static long getNowPlayingSends() {
+        return NOW_PLAYING_SENDS.get();
+    }
+    
+    public static long getNowPlayingEdits() {
+        return NOW_PLAYING_EDITS.get();
+    }
+    
     public static Optional<AudioTrackData> getData(AudioTrack audioTrack) {
         return Optional.ofNullable(audioTrack.getUserData(AudioTrackData.class));
     }
     
+    public static AudioPlayer getOrCreateAudioPlayer(Guild guild) {
+        AudioPlayer audioPlayer = getAudioPlayer(guild);
+        if (audioPlayer != null) {
+            ACTIVITY_TIMES.computeIfPresent(guild.getIdLong(), (key, value) -> System.currentTimeMillis());
+            return audioPlayer;
+        }
+        
+        return register(guild);
+    }
+    
     public static AudioPlayer getAudioPlayer(Guild guild) {
         return AUDIO_PLAYERS.get(guild.getIdLong());
     }
     
-    public static BlockingQueue<AudioTrack> getAudioQueue(Guild guild) {
+    public static AudioPlayerSendHandler getSendHandler(Guild guild) {
+        AudioSendHandler sendHandler = guild.getAudioManager().getSendingHandler();
+        if (sendHandler instanceof AudioPlayerSendHandler) {
+            return (AudioPlayerSendHandler) sendHandler;
+        }
+        
+        return null;
+    }
+    
+    public static AudioQueue getOrCreateAudioQueue(Guild guild) {
+        getOrCreateAudioPlayer(guild);
+        return getAudioQueue(guild);
+    }
+    
+    public static AudioQueue getAudioQueue(Guild guild) {
         return AUDIO_QUEUES.get(guild.getIdLong());
     }
     
@@ -350,6 +940,11 @@ public final class AudioManager {
         searchResults.keySet().removeIf(audioTrackData -> audioTrackData.getUser().getIdLong() == member.getIdLong());
     }
     
+    public static Map<AudioTrackData, List<AudioTrack>> getOrCreateSearchResults(Guild guild) {
+        getOrCreateAudioPlayer(guild);
+        return getSearchResults(guild);
+    }
+    
     public static Map<AudioTrackData, List<AudioTrack>> getSearchResults(Guild guild) {
         return SEARCH_RESULTS.get(guild.getIdLong());
     }
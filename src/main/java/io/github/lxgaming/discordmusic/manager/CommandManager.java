@@ -16,7 +16,10 @@
 
 package io.github.lxgaming.discordmusic.manager;
 
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.ImmutableSortedMap;
 import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
 import com.google.common.collect.Sets;
 import io.github.lxgaming.discordmusic.DiscordMusic;
 import io.github.lxgaming.discordmusic.command.ClearCommand;
@@ -34,11 +37,10 @@ import io.github.lxgaming.discordmusic.command.SelectCommand;
 import io.github.lxgaming.discordmusic.command.ShutdownCommand;
 import io.github.lxgaming.discordmusic.command.SkipCommand;
 import io.github.lxgaming.discordmusic.command.SourcesCommand;
+import io.github.lxgaming.discordmusic.command.StatisticsCommand;
 import io.github.lxgaming.discordmusic.command.StopCommand;
 import io.github.lxgaming.discordmusic.command.VolumeCommand;
-import io.github.lxgaming.discordmusic.configuration.Config;
-import io.github.lxgaming.discordmusic.configuration.category.GeneralCategory;
-import io.github.lxgaming.discordmusic.configuration.category.MessageCategory;
+import io.github.lxgaming.discordmusic.configuration.ConfigSnapshot;
 import io.github.lxgaming.discordmusic.entity.Color;
 import io.github.lxgaming.discordmusic.util.StringUtils;
 import io.github.lxgaming.discordmusic.util.Toolbox;
@@ -46,12 +48,19 @@ import net.dv8tion.jda.api.EmbedBuilder;
 import net.dv8tion.jda.api.entities.Message;
 
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
+import java.util.SortedMap;
+import java.util.concurrent.atomic.AtomicLong;
 
 public final class CommandManager {
     
     public static final Set<Command> COMMANDS = Sets.newLinkedHashSet();
     private static final Set<Class<? extends Command>> COMMAND_CLASSES = Sets.newHashSet();
+    private static final AtomicLong ACCEPTED_MESSAGES = new AtomicLong();
+    private static final AtomicLong REJECTED_MESSAGES = new AtomicLong();
+    private static volatile Map<Class<? extends Command>, Command> commandIndex;
+    private static volatile CommandNode commandTree;
     
     public static void prepare() {
         registerCommand(ClearCommand.class);
@@ -68,8 +77,64 @@ public final class CommandManager {
         registerCommand(ShutdownCommand.class);
         registerCommand(SkipCommand.class);
         registerCommand(SourcesCommand.class);
+        registerCommand(StatisticsCommand.class);
         registerCommand(StopCommand.class);
         registerCommand(VolumeCommand.class);
+        compile();
+    }
+    
+    /**
+     * Rebuilds the immutable alias tree and class index used to resolve commands.
+     *
+     * <p>Called once registration has finished, any later registration invalidates the current tree.</p>
+     */
+    public static synchronized void compile() {
+        ImmutableMap.Builder<Class<? extends Command>, Command> indexBuilder = ImmutableMap.builder();
+        CommandNode rootNode = new CommandNode(null, compile(COMMANDS, indexBuilder));
+        commandIndex = indexBuilder.build();
+        commandTree = rootNode;
+    }
+    
+    private static Map<String, CommandNode> compile(Set<Command> commands, ImmutableMap.Builder<Class<? extends Command>, Command> indexBuilder) {
+        SortedMap<String, CommandNode> nodes = Maps.newTreeMap(String.CASE_INSENSITIVE_ORDER);
+        for (Command command : commands) {
+            indexBuilder.put(command.getClass(), command);
+            CommandNode node = new CommandNode(command, compile(command.getChildren(), indexBuilder));
+            for (String alias : command.getAliases()) {
+                // The first command registered for an alias takes precedence
+                nodes.putIfAbsent(alias, node);
+            }
+        }
+        
+        return ImmutableSortedMap.copyOfSorted(nodes);
+    }
+    
+    private static void invalidate() {
+        commandIndex = null;
+        commandTree = null;
+    }
+    
+    /**
+     * Checks the raw content of the message against the command prefix without allocating, called inline on the gateway thread.
+     *
+     * <p>Mentions are only resolved when the message is executed, so content starting with one is always accepted.</p>
+     *
+     * @param message The {@link Message} to check.
+     * @return {@code true} if the message may be a command, otherwise {@code false}.
+     */
+    public static boolean isCommand(Message message) {
+        ConfigSnapshot snapshot = DiscordMusic.getInstance().getConfiguration().getSnapshot();
+        String commandPrefix = snapshot != null ? snapshot.getCommandPrefix() : null;
+        if (commandPrefix != null) {
+            String content = message.getContentRaw();
+            if (content.regionMatches(true, 0, commandPrefix, 0, commandPrefix.length()) || (!content.isEmpty() && content.charAt(0) == '<')) {
+                ACCEPTED_MESSAGES.incrementAndGet();
+                return true;
+            }
+        }
+        
+        REJECTED_MESSAGES.incrementAndGet();
+        return false;
     }
     
     public static boolean execute(Message message) {
@@ -88,11 +153,13 @@ public final class CommandManager {
             return false;
         }
         
-        if (DiscordMusic.getInstance().getConfig().map(Config::getMessageCategory).map(MessageCategory::isDeleteInvoking).orElse(false)) {
-            MessageManager.MESSAGES.add(message);
+        DiscordManager.register(message.getGuild());
+        ConfigSnapshot snapshot = DiscordMusic.getInstance().getConfiguration().getSnapshot();
+        if (snapshot.isDeleteInvoking()) {
+            MessageManager.addTemporaryMessage(message);
         }
         
-        if (DiscordMusic.getInstance().getConfig().map(Config::getMessageCategory).map(MessageCategory::isSendTyping).orElse(false)) {
+        if (snapshot.isSendTyping()) {
             message.getChannel().sendTyping().queue();
         }
         
@@ -101,7 +168,7 @@ public final class CommandManager {
             embedBuilder.setColor(MessageManager.getColor(Color.ERROR));
             embedBuilder.setTitle("You do not have permission to execute this command");
             embedBuilder.setFooter("Missing permission: " + command.getPermission(), "https://repo.lxgaming.me/assets/discord/warning.png");
-            MessageManager.sendTemporaryMessage(message.getTextChannel(), embedBuilder.build());
+            MessageManager.sendTemporaryErrorMessage(message.getTextChannel(), embedBuilder.build());
             return false;
         }
         
@@ -116,7 +183,7 @@ public final class CommandManager {
             embedBuilder.setColor(MessageManager.getColor(Color.ERROR));
             embedBuilder.setTitle("An unexpected error has occurred. Details are available in console.");
             embedBuilder.setFooter("Exception: " + ex.getClass().getName(), "https://repo.lxgaming.me/assets/discord/error.png");
-            MessageManager.sendMessage(message.getTextChannel(), embedBuilder.build());
+            MessageManager.sendErrorMessage(message.getTextChannel(), embedBuilder.build());
             return false;
         }
     }
@@ -128,6 +195,7 @@ public final class CommandManager {
         }
         
         command.getAliases().add(alias);
+        invalidate();
         DiscordMusic.getInstance().getLogger().debug("{} registered for {}", alias, Toolbox.getClassSimpleName(command.getClass()));
         return true;
     }
@@ -182,6 +250,7 @@ public final class CommandManager {
         }
         
         if (commands.add(command)) {
+            invalidate();
             return command;
         }
         
@@ -189,63 +258,67 @@ public final class CommandManager {
     }
     
     public static Command getCommand(Class<? extends Command> commandClass) {
-        return getCommand(null, commandClass);
+        Map<Class<? extends Command>, Command> commandIndex = CommandManager.commandIndex;
+        if (commandIndex == null) {
+            compile();
+            commandIndex = CommandManager.commandIndex;
+        }
+        
+        return commandIndex.get(commandClass);
     }
     
     public static Command getCommand(Command parentCommand, Class<? extends Command> commandClass) {
-        Set<Command> commands = Sets.newLinkedHashSet();
-        if (parentCommand != null) {
-            commands.addAll(parentCommand.getChildren());
-        } else {
-            commands.addAll(COMMANDS);
+        Command command = getCommand(commandClass);
+        if (parentCommand == null || command == null) {
+            return command;
         }
         
-        for (Command command : commands) {
-            if (command.getClass() == commandClass) {
+        for (Command currentCommand = command.getParentCommand(); currentCommand != null; currentCommand = currentCommand.getParentCommand()) {
+            if (currentCommand == parentCommand) {
                 return command;
             }
-            
-            Command childCommand = getCommand(command, commandClass);
-            if (childCommand != null) {
-                return childCommand;
-            }
         }
         
         return null;
     }
     
+    /**
+     * Resolves the deepest command matching the leading arguments, the matched aliases are removed from {@code arguments}.
+     */
     public static Command getCommand(List<String> arguments) {
-        return getCommand(null, arguments);
-    }
-    
-    private static Command getCommand(Command parentCommand, List<String> arguments) {
-        if (arguments.isEmpty()) {
-            return parentCommand;
+        CommandNode node = CommandManager.commandTree;
+        if (node == null) {
+            compile();
+            node = CommandManager.commandTree;
         }
         
-        Set<Command> commands = Sets.newLinkedHashSet();
-        if (parentCommand != null) {
-            commands.addAll(parentCommand.getChildren());
-        } else {
-            commands.addAll(COMMANDS);
-        }
-        
-        for (Command command : commands) {
-            if (StringUtils.containsIgnoreCase(command.getAliases(), arguments.get(0))) {
-                arguments.remove(0);
-                return getCommand(command, arguments);
+        int index = 0;
+        while (index < arguments.size()) {
+            CommandNode childNode = node.children.get(arguments.get(index));
+            if (childNode == null) {
+                break;
             }
+            
+            node = childNode;
+            index++;
         }
         
-        return parentCommand;
+        arguments.subList(0, index).clear();
+        return node.command;
+    }
+    
+    public static long getAcceptedMessages() {
+        return ACCEPTED_MESSAGES.get();
+    }
+    
+    public static long getRejectedMessages() {
+        return REJECTED_MESSAGES.get();
     }
     
     private static List<String> parseMessage(String string) {
-        String commandPrefix = DiscordMusic.getInstance().getConfig()
-                .map(Config::getGeneralCategory)
-                .map(GeneralCategory::getCommandPrefix)
-                .orElse(null);
-        if (StringUtils.isBlank(commandPrefix)) {
+        ConfigSnapshot snapshot = DiscordMusic.getInstance().getConfiguration().getSnapshot();
+        String commandPrefix = snapshot != null ? snapshot.getCommandPrefix() : null;
+        if (commandPrefix == null) {
             return null;
         }
         
@@ -255,4 +328,15 @@ public final class CommandManager {
         
         return Lists.newArrayList(StringUtils.split(StringUtils.removeStartIgnoreCase(string, commandPrefix)));
     }
+    
+    private static final class CommandNode {
+        
+        private final Command command;
+        private final Map<String, CommandNode> children;
+        
+        private CommandNode(Command command, Map<String, CommandNode> children) {
+            this.command = command;
+            this.children = children;
+        }
+    }
 }
\ No newline at end of file
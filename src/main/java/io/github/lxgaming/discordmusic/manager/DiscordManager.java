@@ -16,13 +16,17 @@
 
 package io.github.lxgaming.discordmusic.manager;
 
+import com.google.common.collect.Maps;
 import com.google.common.collect.Sets;
 import io.github.lxgaming.discordmusic.DiscordMusic;
 import io.github.lxgaming.discordmusic.configuration.Config;
+import io.github.lxgaming.discordmusic.configuration.Configuration;
 import io.github.lxgaming.discordmusic.configuration.category.AccountCategory;
 import io.github.lxgaming.discordmusic.configuration.category.GuildCategory;
 import io.github.lxgaming.discordmusic.configuration.category.guild.RoleCategory;
 import io.github.lxgaming.discordmusic.configuration.category.guild.UserCategory;
+import io.github.lxgaming.discordmusic.entity.PermissionIndex;
+import io.github.lxgaming.discordmusic.util.StringUtils;
 import net.dv8tion.jda.api.entities.Guild;
 import net.dv8tion.jda.api.entities.Member;
 import net.dv8tion.jda.api.entities.Role;
@@ -33,33 +37,91 @@ import java.util.Set;
 
 public final class DiscordManager {
     
-    public static void register(Guild guild) {
+    private static final Map<Long, PermissionIndex> PERMISSION_INDEXES = Maps.newConcurrentMap();
+    private static final Set<Long> REGISTERED_GUILDS = Sets.newConcurrentHashSet();
+    
+    /**
+     * Returns the {@link GuildCategory} of the guild, creating it and synchronizing its name and roles on the first call after startup.
+     *
+     * <p>Guilds are registered on their first command or voice event rather than on ready, guilds which never use the bot are never written.</p>
+     *
+     * @param guild The {@link Guild} to register.
+     * @return The {@link GuildCategory}, {@code null} if it is unavailable.
+     */
+    public static GuildCategory register(Guild guild) {
+        if (!REGISTERED_GUILDS.add(guild.getIdLong())) {
+            return getGuildCategory(guild);
+        }
+        
         GuildCategory guildCategory = getOrCreateGuildCategory(guild);
         if (guildCategory == null) {
-            return;
+            REGISTERED_GUILDS.remove(guild.getIdLong());
+            return null;
         }
         
-        guildCategory.setId(guild.getIdLong());
-        guildCategory.setName(guild.getName());
-        
-        Set<RoleCategory> roleCategories = Sets.newLinkedHashSet();
-        for (Role role : guild.getRoles()) {
-            RoleCategory roleCategory = getRoleCategory(role);
-            if (roleCategory == null) {
-                continue;
-            }
+        boolean changed;
+        synchronized (DiscordMusic.getInstance().getConfiguration().getLock()) {
+            changed = !StringUtils.equals(guildCategory.getName(), guild.getName());
+            guildCategory.setId(guild.getIdLong());
+            guildCategory.setName(guild.getName());
             
-            roleCategory.setId(role.getIdLong());
-            roleCategory.setName(role.getName());
-            if (role.isPublicRole()) {
-                roleCategory.setInheritable(true);
+            Set<RoleCategory> roleCategories = Sets.newLinkedHashSet();
+            for (Role role : guild.getRoles()) {
+                RoleCategory roleCategory = getRoleCategory(role);
+                if (roleCategory == null) {
+                    continue;
+                }
+                
+                changed |= !StringUtils.equals(roleCategory.getName(), role.getName()) || (role.isPublicRole() && !roleCategory.isInheritable());
+                roleCategory.setId(role.getIdLong());
+                roleCategory.setName(role.getName());
+                if (role.isPublicRole()) {
+                    roleCategory.setInheritable(true);
+                }
+                
+                roleCategories.add(roleCategory);
             }
             
-            roleCategories.add(roleCategory);
+            changed |= !roleCategories.equals(guildCategory.getRoleCategories());
+            guildCategory.setRoleCategories(roleCategories);
+        }
+        
+        invalidatePermissions(guild);
+        if (changed) {
+            DiscordMusic.getInstance().getConfiguration().saveGuildCategory(guildCategory);
         }
         
-        guildCategory.getRoleCategories().clear();
-        guildCategory.getRoleCategories().addAll(roleCategories);
+        return guildCategory;
+    }
+    
+    public static void unregister(Guild guild) {
+        REGISTERED_GUILDS.remove(guild.getIdLong());
+        invalidatePermissions(guild);
+    }
+    
+    public static void saveGuildCategory(Guild guild) {
+        GuildCategory guildCategory = getGuildCategory(guild);
+        if (guildCategory != null) {
+            DiscordMusic.getInstance().getConfiguration().saveGuildCategory(guildCategory);
+        }
+    }
+    
+    /**
+     * Discards the compiled permissions of the guild, called whenever its roles or configured permissions change.
+     */
+    public static void invalidatePermissions(Guild guild) {
+        PERMISSION_INDEXES.remove(guild.getIdLong());
+    }
+    
+    public static void invalidatePermissions() {
+        PERMISSION_INDEXES.clear();
+    }
+    
+    private static PermissionIndex getPermissionIndex(Guild guild) {
+        return PERMISSION_INDEXES.computeIfAbsent(guild.getIdLong(), key -> {
+            GuildCategory guildCategory = getGuildCategory(guild);
+            return guildCategory != null ? PermissionIndex.of(guild, guildCategory) : null;
+        });
     }
     
     public static User getOwner() {
@@ -77,71 +139,22 @@ public final class DiscordManager {
             return true;
         }
         
-        UserCategory userCategory = getUserCategory(member);
-        if (userCategory != null) {
-            Boolean userPermission = hasPermission(userCategory.getPermissions(), permission);
-            if (userPermission != null) {
-                return userPermission;
-            }
-        }
-        
-        Set<RoleCategory> roleCategories = getRoleCategories(member);
-        if (roleCategories != null) {
-            Boolean rolePermission = hasPermission(roleCategories, permission);
-            if (rolePermission != null) {
-                return rolePermission;
-            }
-        }
-        
-        return false;
-    }
-    
-    private static Boolean hasPermission(Iterable<RoleCategory> roleCategories, String permission) {
-        for (RoleCategory roleCategory : roleCategories) {
-            Boolean value = hasPermission(roleCategory.getPermissions(), permission);
-            if (value != null) {
-                return value;
-            }
-        }
-        
-        return null;
-    }
-    
-    private static Boolean hasPermission(Map<String, Boolean> permissions, String permission) {
-        Boolean value = permissions.get(permission);
-        if (value != null) {
-            return value;
+        PermissionIndex permissionIndex = getPermissionIndex(member.getGuild());
+        if (permissionIndex == null) {
+            return false;
         }
         
-        return permissions.get("*");
+        Boolean value = permissionIndex.getPermission(member, permission);
+        return value != null ? value : false;
     }
     
     public static Set<RoleCategory> getRoleCategories(Member member) {
-        GuildCategory guildCategory = getGuildCategory(member.getGuild());
-        if (guildCategory == null || guildCategory.getRoleCategories() == null || guildCategory.getRoleCategories().isEmpty()) {
+        PermissionIndex permissionIndex = getPermissionIndex(member.getGuild());
+        if (permissionIndex == null) {
             return null;
         }
         
-        Set<RoleCategory> userRoleCategories = Sets.newLinkedHashSet();
-        for (Role role : member.getGuild().getRoles()) {
-            if (member.getRoles().contains(role) || role.isPublicRole()) {
-                RoleCategory roleCategory = getRoleCategory(guildCategory.getRoleCategories(), role);
-                if (roleCategory != null) {
-                    userRoleCategories.add(roleCategory);
-                }
-                
-                continue;
-            }
-            
-            if (!userRoleCategories.isEmpty()) {
-                RoleCategory roleCategory = getRoleCategory(guildCategory.getRoleCategories(), role);
-                if (roleCategory != null && roleCategory.isInheritable()) {
-                    userRoleCategories.add(roleCategory);
-                }
-            }
-        }
-        
-        return userRoleCategories;
+        return Sets.newLinkedHashSet(permissionIndex.getRoleSet(member).getRoleCategories());
     }
     
     public static RoleCategory getOrCreateRoleCategory(Role role) {
@@ -150,7 +163,7 @@ public final class DiscordManager {
             return null;
         }
         
-        RoleCategory existingRoleCategory = getRoleCategory(guildCategory.getRoleCategories(), role);
+        RoleCategory existingRoleCategory = guildCategory.getRoleCategory(role.getIdLong());
         if (existingRoleCategory != null) {
             return existingRoleCategory;
         }
@@ -159,11 +172,17 @@ public final class DiscordManager {
         roleCategory.setId(role.getIdLong());
         roleCategory.setName(role.getName());
         
-        if (guildCategory.getRoleCategories().add(roleCategory)) {
+        boolean added;
+        synchronized (DiscordMusic.getInstance().getConfiguration().getLock()) {
+            added = guildCategory.addRoleCategory(roleCategory);
+        }
+        
+        if (added) {
+            invalidatePermissions(role.getGuild());
             return roleCategory;
         }
         
-        return null;
+        return guildCategory.getRoleCategory(role.getIdLong());
     }
     
     public static RoleCategory getRoleCategory(Role role) {
@@ -172,17 +191,7 @@ public final class DiscordManager {
             return null;
         }
         
-        return getRoleCategory(guildCategory.getRoleCategories(), role);
-    }
-    
-    public static RoleCategory getRoleCategory(Iterable<RoleCategory> roleCategories, Role role) {
-        for (RoleCategory roleCategory : roleCategories) {
-            if (roleCategory.getId() == role.getIdLong()) {
-                return roleCategory;
-            }
-        }
-        
-        return null;
+        return guildCategory.getRoleCategory(role.getIdLong());
     }
     
     public static UserCategory getOrCreateUserCategory(Member member) {
@@ -191,7 +200,7 @@ public final class DiscordManager {
             return null;
         }
         
-        UserCategory existingUserCategory = getUserCategory(guildCategory.getUserCategories(), member);
+        UserCategory existingUserCategory = guildCategory.getUserCategory(member.getIdLong());
         if (existingUserCategory != null) {
             return existingUserCategory;
         }
@@ -200,11 +209,17 @@ public final class DiscordManager {
         userCategory.setId(member.getIdLong());
         userCategory.setName(member.getUser().getName());
         
-        if (guildCategory.getUserCategories().add(userCategory)) {
+        boolean added;
+        synchronized (DiscordMusic.getInstance().getConfiguration().getLock()) {
+            added = guildCategory.addUserCategory(userCategory);
+        }
+        
+        if (added) {
+            invalidatePermissions(member.getGuild());
             return userCategory;
         }
         
-        return null;
+        return guildCategory.getUserCategory(member.getIdLong());
     }
     
     public static UserCategory getUserCategory(Member member) {
@@ -213,26 +228,12 @@ public final class DiscordManager {
             return null;
         }
         
-        return getUserCategory(guildCategory.getUserCategories(), member);
-    }
-    
-    private static UserCategory getUserCategory(Iterable<UserCategory> userCategories, Member member) {
-        for (UserCategory userCategory : userCategories) {
-            if (userCategory.getId() == member.getIdLong()) {
-                return userCategory;
-            }
-        }
-        
-        return null;
+        return guildCategory.getUserCategory(member.getIdLong());
     }
     
     public static GuildCategory getOrCreateGuildCategory(Guild guild) {
-        Set<GuildCategory> guildCategories = DiscordMusic.getInstance().getConfig().map(Config::getGuildCategories).orElse(null);
-        if (guildCategories == null) {
-            return null;
-        }
-        
-        GuildCategory existingGuildCategory = getGuildCategory(guildCategories, guild);
+        Configuration configuration = DiscordMusic.getInstance().getConfiguration();
+        GuildCategory existingGuildCategory = configuration.getGuildCategory(guild.getIdLong());
         if (existingGuildCategory != null) {
             return existingGuildCategory;
         }
@@ -241,29 +242,14 @@ public final class DiscordManager {
         guildCategory.setId(guild.getIdLong());
         guildCategory.setName(guild.getName());
         
-        if (guildCategories.add(guildCategory)) {
+        if (configuration.addGuildCategory(guildCategory)) {
             return guildCategory;
         }
         
-        return null;
+        return configuration.getGuildCategory(guild.getIdLong());
     }
     
     public static GuildCategory getGuildCategory(Guild guild) {
-        Set<GuildCategory> guildCategories = DiscordMusic.getInstance().getConfig().map(Config::getGuildCategories).orElse(null);
-        if (guildCategories == null) {
-            return null;
-        }
-        
-        return getGuildCategory(guildCategories, guild);
-    }
-    
-    private static GuildCategory getGuildCategory(Iterable<GuildCategory> guildCategories, Guild guild) {
-        for (GuildCategory guildCategory : guildCategories) {
-            if (guildCategory.getId() == guild.getIdLong()) {
-                return guildCategory;
-            }
-        }
-        
-        return null;
+        return DiscordMusic.getInstance().getConfiguration().getGuildCategory(guild.getIdLong());
     }
 }
\ No newline at end of file
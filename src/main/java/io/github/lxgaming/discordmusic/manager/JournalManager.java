@@ -0,0 +1,386 @@
+/*
+ * Copyright 2026 Alex Thomson
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.lxgaming.discordmusic.manager;
+
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+import com.sedmelluq.discord.lavaplayer.player.AudioPlayer;
+import com.sedmelluq.discord.lavaplayer.tools.io.MessageInput;
+import com.sedmelluq.discord.lavaplayer.track.AudioTrack;
+import com.sedmelluq.discord.lavaplayer.track.DecodedTrackHolder;
+import io.github.lxgaming.discordmusic.DiscordMusic;
+import io.github.lxgaming.discordmusic.configuration.Config;
+import io.github.lxgaming.discordmusic.configuration.category.GeneralCategory;
+import io.github.lxgaming.discordmusic.entity.AudioQueue;
+import io.github.lxgaming.discordmusic.entity.AudioTrackData;
+import io.github.lxgaming.discordmusic.entity.QueueJournal;
+import io.github.lxgaming.discordmusic.util.Toolbox;
+import net.dv8tion.jda.api.JDA;
+import net.dv8tion.jda.api.entities.Guild;
+import net.dv8tion.jda.api.entities.MessageChannel;
+import net.dv8tion.jda.api.entities.User;
+
+import java.io.BufferedInputStream;
+import java.io.ByteArrayInputStream;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.zip.CRC32;
+
+public final class JournalManager {
+    
+    private static final Map<Long, QueueJournal> JOURNALS = Maps.newConcurrentMap();
+    private static final int COMPACT_THRESHOLD = 1000; // Records
+    private static final int MAX_RECORD_LENGTH = 1048576; // 1 Megabyte
+    private static final long POSITION_INTERVAL = 10000L; // 10 Seconds
+    private static final AtomicLong WRITTEN_BYTES = new AtomicLong();
+    private static final AtomicLong FLUSHES = new AtomicLong();
+    private static final AtomicLong FLUSH_TIME = new AtomicLong();
+    private static final AtomicLong COMPACTIONS = new AtomicLong();
+    private static final AtomicLong RECOVERED_TRACKS = new AtomicLong();
+    private static final AtomicLong RECOVERY_TIME = new AtomicLong();
+    
+    public static void register(Guild guild, AudioQueue audioQueue) {
+        if (!isEnabled()) {
+            return;
+        }
+        
+        QueueJournal journal = new QueueJournal(guild.getIdLong());
+        
+        // Any existing file describes a previous session, replace it with the current queue
+        journal.setCompactRequired(true);
+        audioQueue.setJournal(journal);
+        JOURNALS.put(guild.getIdLong(), journal);
+    }
+    
+    public static synchronized void unregister(Guild guild) {
+        if (JOURNALS.remove(guild.getIdLong()) == null) {
+            return;
+        }
+        
+        try {
+            Files.deleteIfExists(getPath(guild.getIdLong()));
+        } catch (Exception ex) {
+            DiscordMusic.getInstance().getLogger().error("Encountered an error while deleting journal for {} ({})", guild.getName(), guild.getIdLong(), ex);
+        }
+    }
+    
+    public static void playing(Guild guild, AudioTrack audioTrack) {
+        QueueJournal journal = JOURNALS.get(guild.getIdLong());
+        if (journal != null) {
+            journal.playing(audioTrack);
+        }
+    }
+    
+    /**
+     * Appends the pending records of every journal and forces them to disk, one fsync per guild per batch.
+     *
+     * <p>Journals which have grown past the compaction threshold are replaced by a snapshot of the queue instead.</p>
+     */
+    public static synchronized void flush() {
+        JDA jda = AccountManager.getJDA();
+        if (jda == null) {
+            return;
+        }
+        
+        for (QueueJournal journal : JOURNALS.values()) {
+            Guild guild = jda.getGuildById(journal.getGuildId());
+            if (guild == null) {
+                continue;
+            }
+            
+            AudioPlayer audioPlayer = AudioManager.getAudioPlayer(guild);
+            AudioTrack playingTrack = audioPlayer != null ? audioPlayer.getPlayingTrack() : null;
+            if (playingTrack != null && System.currentTimeMillis() - journal.getPositionTime() >= POSITION_INTERVAL) {
+                journal.position(playingTrack.getPosition());
+            }
+            
+            if (journal.isCompactRequired() || journal.getRecords() >= COMPACT_THRESHOLD) {
+                compact(guild, journal);
+            } else {
+                write(journal);
+            }
+        }
+    }
+    
+    /**
+     * Restores the queue and current track of the provided {@link Guild} from its journal.
+     *
+     * <p>The previously playing track is placed at the head of the queue at its last recorded position.</p>
+     *
+     * @param guild The {@link Guild} to restore.
+     */
+    public static void replay(Guild guild) {
+        Path path = getPath(guild.getIdLong());
+        if (!isEnabled() || !Files.exists(path)) {
+            return;
+        }
+        
+        long startTime = System.nanoTime();
+        List<AudioTrack> audioTracks = Lists.newArrayList();
+        AudioTrack playingTrack = null;
+        long position = 0L;
+        int records = 0;
+        
+        try (DataInputStream inputStream = new DataInputStream(new BufferedInputStream(Files.newInputStream(path)))) {
+            CRC32 checksum = new CRC32();
+            while (true) {
+                int length;
+                try {
+                    length = inputStream.readInt();
+                } catch (EOFException ex) {
+                    break;
+                }
+                
+                if (length <= 0 || length > MAX_RECORD_LENGTH) {
+                    DiscordMusic.getInstance().getLogger().warn("Journal for {} ({}) contains an invalid record after {} records", guild.getName(), guild.getIdLong(), records);
+                    break;
+                }
+                
+                int expectedChecksum = inputStream.readInt();
+                byte[] payload = new byte[length];
+                inputStream.readFully(payload);
+                checksum.reset();
+                checksum.update(payload);
+                if ((int) checksum.getValue() != expectedChecksum) {
+                    DiscordMusic.getInstance().getLogger().warn("Journal for {} ({}) contains a corrupt record after {} records", guild.getName(), guild.getIdLong(), records);
+                    break;
+                }
+                
+                DataInputStream payloadStream = new DataInputStream(new ByteArrayInputStream(payload));
+                byte type = payloadStream.readByte();
+                if (type == QueueJournal.ADD) {
+                    int index = payloadStream.readInt();
+                    
+                    // Tracks which fail to decode are kept as placeholders so later indexes still line up
+                    audioTracks.add(Math.min(Math.max(index, 0), audioTracks.size()), readTrack(guild, payloadStream));
+                } else if (type == QueueJournal.REMOVE) {
+                    int index = payloadStream.readInt();
+                    if (index >= 0 && index < audioTracks.size()) {
+                        audioTracks.remove(index);
+                    }
+                } else if (type == QueueJournal.CLEAR) {
+                    audioTracks.clear();
+                } else if (type == QueueJournal.PLAYING) {
+                    playingTrack = payloadStream.readBoolean() ? readTrack(guild, payloadStream) : null;
+                    position = playingTrack != null ? playingTrack.getPosition() : 0L;
+                } else if (type == QueueJournal.POSITION) {
+                    position = payloadStream.readLong();
+                } else {
+                    DiscordMusic.getInstance().getLogger().warn("Journal for {} ({}) contains an unknown record {}", guild.getName(), guild.getIdLong(), type);
+                    break;
+                }
+                
+                records++;
+            }
+        } catch (EOFException ex) {
+            // The final record was only partially written before the process stopped
+            DiscordMusic.getInstance().getLogger().warn("Journal for {} ({}) ends with a truncated record after {} records", guild.getName(), guild.getIdLong(), records);
+        } catch (Exception ex) {
+            DiscordMusic.getInstance().getLogger().error("Encountered an error while replaying journal for {} ({})", guild.getName(), guild.getIdLong(), ex);
+        }
+        
+        if (playingTrack != null) {
+            playingTrack.setPosition(position);
+            audioTracks.add(0, playingTrack);
+        }
+        
+        audioTracks.removeIf(Objects::isNull);
+        if (audioTracks.isEmpty()) {
+            try {
+                Files.deleteIfExists(path);
+            } catch (Exception ex) {
+                DiscordMusic.getInstance().getLogger().error("Encountered an error while deleting journal for {} ({})", guild.getName(), guild.getIdLong(), ex);
+            }
+            
+            return;
+        }
+        
+        AudioQueue audioQueue = AudioManager.getOrCreateAudioQueue(guild);
+        for (AudioTrack audioTrack : audioTracks) {
+            audioQueue.offer(audioTrack);
+        }
+        
+        long recoveryTime = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startTime);
+        RECOVERED_TRACKS.addAndGet(audioTracks.size());
+        RECOVERY_TIME.addAndGet(recoveryTime);
+        DiscordMusic.getInstance().getLogger().info("Restored {} tracks from {} records for {} ({}) in {}ms",
+                audioTracks.size(), records, guild.getName(), guild.getIdLong(), recoveryTime);
+    }
+    
+    public static synchronized void shutdown() {
+        JDA jda = AccountManager.getJDA();
+        if (jda == null) {
+            return;
+        }
+        
+        for (QueueJournal journal : JOURNALS.values()) {
+            Guild guild = jda.getGuildById(journal.getGuildId());
+            if (guild != null) {
+                compact(guild, journal);
+            }
+        }
+    }
+    
+    private static void write(QueueJournal journal) {
+        byte[] bytes = journal.drain();
+        if (bytes.length == 0) {
+            return;
+        }
+        
+        long startTime = System.nanoTime();
+        try (FileChannel fileChannel = FileChannel.open(getPath(journal.getGuildId()), StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND)) {
+            ByteBuffer byteBuffer = ByteBuffer.wrap(bytes);
+            while (byteBuffer.hasRemaining()) {
+                fileChannel.write(byteBuffer);
+            }
+            
+            fileChannel.force(false);
+            WRITTEN_BYTES.addAndGet(bytes.length);
+            FLUSHES.incrementAndGet();
+            FLUSH_TIME.addAndGet(System.nanoTime() - startTime);
+        } catch (Exception ex) {
+            // The drained records are lost, rewrite the journal from the queue on the next flush
+            journal.setCompactRequired(true);
+            DiscordMusic.getInstance().getLogger().error("Encountered an error while writing journal for {}", journal.getGuildId(), ex);
+        }
+    }
+    
+    /**
+     * Replaces the journal file with a snapshot of the current track and queue.
+     *
+     * <p>The snapshot is written to a temporary file which is forced to disk before it atomically replaces the journal.</p>
+     */
+    private static void compact(Guild guild, QueueJournal journal) {
+        AudioQueue audioQueue = AudioManager.getAudioQueue(guild);
+        if (audioQueue == null) {
+            return;
+        }
+        
+        AudioPlayer audioPlayer = AudioManager.getAudioPlayer(guild);
+        QueueJournal snapshot = new QueueJournal(guild.getIdLong());
+        
+        // noinspection SynchronizationOnLocalVariableOrMethodParameter
+        synchronized (audioQueue) {
+            // Encoding the playing track captures its position
+            snapshot.playing(audioPlayer != null ? audioPlayer.getPlayingTrack() : null);
+            List<AudioTrack> audioTracks = audioQueue.getTracks();
+            for (int index = 0; index < audioTracks.size(); index++) {
+                snapshot.add(index, audioTracks.get(index));
+            }
+            
+            journal.reset(snapshot.getRecords());
+        }
+        
+        byte[] bytes = snapshot.drain();
+        Path path = getPath(guild.getIdLong());
+        Path temporaryPath = path.resolveSibling(path.getFileName() + ".tmp");
+        long startTime = System.nanoTime();
+        try {
+            Files.createDirectories(path.getParent());
+            try (FileChannel fileChannel = FileChannel.open(temporaryPath, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+                ByteBuffer byteBuffer = ByteBuffer.wrap(bytes);
+                while (byteBuffer.hasRemaining()) {
+                    fileChannel.write(byteBuffer);
+                }
+                
+                fileChannel.force(false);
+            }
+            
+            Files.move(temporaryPath, path, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+            WRITTEN_BYTES.addAndGet(bytes.length);
+            FLUSHES.incrementAndGet();
+            FLUSH_TIME.addAndGet(System.nanoTime() - startTime);
+            COMPACTIONS.incrementAndGet();
+        } catch (Exception ex) {
+            journal.setCompactRequired(true);
+            DiscordMusic.getInstance().getLogger().error("Encountered an error while compacting journal for {} ({})", guild.getName(), guild.getIdLong(), ex);
+        }
+    }
+    
+    private static AudioTrack readTrack(Guild guild, DataInputStream inputStream) throws IOException {
+        long channelId = inputStream.readLong();
+        long userId = inputStream.readLong();
+        byte[] bytes = new byte[inputStream.readInt()];
+        inputStream.readFully(bytes);
+        
+        DecodedTrackHolder trackHolder = AudioManager.AUDIO_PLAYER_MANAGER.decodeTrack(new MessageInput(new ByteArrayInputStream(bytes)));
+        if (trackHolder == null || trackHolder.decodedTrack == null) {
+            return null;
+        }
+        
+        MessageChannel channel = guild.getTextChannelById(channelId);
+        if (channel == null) {
+            channel = guild.getDefaultChannel();
+        }
+        
+        if (channel == null) {
+            return null;
+        }
+        
+        AudioTrack audioTrack = trackHolder.decodedTrack;
+        audioTrack.setUserData(AudioTrackData.of(guild, channel, User.fromId(userId)));
+        return audioTrack;
+    }
+    
+    private static boolean isEnabled() {
+        return DiscordMusic.getInstance().getConfig().map(Config::getGeneralCategory).map(GeneralCategory::isPersistQueues).orElse(false);
+    }
+    
+    private static Path getPath(long guildId) {
+        return Toolbox.getPath().resolve("journal").resolve(guildId + ".journal");
+    }
+    
+    public static int getJournals() {
+        return JOURNALS.size();
+    }
+    
+    public static long getWrittenBytes() {
+        return WRITTEN_BYTES.get();
+    }
+    
+    public static long getFlushes() {
+        return FLUSHES.get();
+    }
+    
+    public static long getFlushTime() {
+        return FLUSH_TIME.get();
+    }
+    
+    public static long getCompactions() {
+        return COMPACTIONS.get();
+    }
+    
+    public static long getRecoveredTracks() {
+        return RECOVERED_TRACKS.get();
+    }
+    
+    public static long getRecoveryTime() {
+        return RECOVERY_TIME.get();
+    }
+}
\ No newline at end of file
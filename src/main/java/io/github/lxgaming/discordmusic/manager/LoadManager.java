@@ -0,0 +1,572 @@
+/*
+ * Copyright 2026 Alex Thomson
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.lxgaming.discordmusic.manager;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheStats;
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+import com.google.common.collect.Queues;
+import com.sedmelluq.discord.lavaplayer.player.AudioLoadResultHandler;
+import com.sedmelluq.discord.lavaplayer.tools.FriendlyException;
+import com.sedmelluq.discord.lavaplayer.tools.io.MessageInput;
+import com.sedmelluq.discord.lavaplayer.tools.io.MessageOutput;
+import com.sedmelluq.discord.lavaplayer.track.AudioPlaylist;
+import com.sedmelluq.discord.lavaplayer.track.AudioTrack;
+import com.sedmelluq.discord.lavaplayer.track.DecodedTrackHolder;
+import io.github.lxgaming.discordmusic.DiscordMusic;
+import io.github.lxgaming.discordmusic.configuration.Config;
+import io.github.lxgaming.discordmusic.configuration.category.GeneralCategory;
+import io.github.lxgaming.discordmusic.entity.AudioTrackData;
+import io.github.lxgaming.discordmusic.entity.LoadResult;
+import io.github.lxgaming.discordmusic.handler.AudioPlayerLoadResultHandler;
+import io.github.lxgaming.discordmusic.util.Toolbox;
+import net.dv8tion.jda.api.entities.Guild;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+
+public final class LoadManager {
+    
+    private static final int CACHE_VERSION = 1;
+    private static final Map<String, Load> LOADS = Maps.newHashMap();
+    private static final Deque<Load> INTERACTIVE_LOADS = Queues.newArrayDeque();
+    private static final Deque<Load> BULK_LOADS = Queues.newArrayDeque();
+    private static final Map<Long, Integer> GUILD_LOADS = Maps.newHashMap();
+    private static final AtomicLong REQUESTED_LOADS = new AtomicLong();
+    private static final AtomicLong COALESCED_LOADS = new AtomicLong();
+    private static final AtomicLong STARTED_LOADS = new AtomicLong();
+    private static final AtomicLong CANCELLED_LOADS = new AtomicLong();
+    private static final AtomicLong WAIT_TIME = new AtomicLong();
+    private static int activeLoads;
+    private static int peakPendingLoads;
+    private static volatile Cache<String, LoadResult> cache;
+    
+    public static void prepare() {
+        GeneralCategory generalCategory = DiscordMusic.getInstance().getConfig().map(Config::getGeneralCategory).orElseThrow(NullPointerException::new);
+        if (generalCategory.getMaxLoads() <= 0) {
+            DiscordMusic.getInstance().getLogger().warn("MaxLoads is out of bounds. Resetting to {}", GeneralCategory.DEFAULT_MAX_LOADS);
+            generalCategory.setMaxLoads(GeneralCategory.DEFAULT_MAX_LOADS);
+        }
+        
+        if (generalCategory.getMaxGuildLoads() <= 0 || generalCategory.getMaxGuildLoads() > generalCategory.getMaxLoads()) {
+            DiscordMusic.getInstance().getLogger().warn("MaxGuildLoads is out of bounds. Resetting to {}", GeneralCategory.DEFAULT_MAX_GUILD_LOADS);
+            generalCategory.setMaxGuildLoads(Math.min(GeneralCategory.DEFAULT_MAX_GUILD_LOADS, generalCategory.getMaxLoads()));
+        }
+        
+        if (generalCategory.getLoadCacheSize() < 0) {
+            DiscordMusic.getInstance().getLogger().warn("LoadCacheSize is out of bounds. Resetting to {}", GeneralCategory.DEFAULT_LOAD_CACHE_SIZE);
+            generalCategory.setLoadCacheSize(GeneralCategory.DEFAULT_LOAD_CACHE_SIZE);
+        }
+        
+        if (generalCategory.getLoadCacheExpiry() <= 0L) {
+            DiscordMusic.getInstance().getLogger().warn("LoadCacheExpiry is out of bounds. Resetting to {}", GeneralCategory.DEFAULT_LOAD_CACHE_EXPIRY);
+            generalCategory.setLoadCacheExpiry(GeneralCategory.DEFAULT_LOAD_CACHE_EXPIRY);
+        }
+        
+        if (generalCategory.getLoadCacheSize() == 0) {
+            cache = null;
+            return;
+        }
+        
+        // Weighed by track count, a single playlist can hold thousands of tracks
+        cache = CacheBuilder.newBuilder()
+                .maximumWeight(generalCategory.getLoadCacheSize())
+                .weigher((String key, LoadResult value) -> Math.max(value.getTracks().size(), 1))
+                .expireAfterWrite(generalCategory.getLoadCacheExpiry(), TimeUnit.MILLISECONDS)
+                .recordStats()
+                .build();
+    }
+    
+    /**
+     * Resolves the provided identifier for the provided {@link AudioTrackData}, from the cache if possible.
+     *
+     * <p>Concurrent requests for the same identifier share a single {@link AudioManager#AUDIO_PLAYER_MANAGER} load,
+     * every requester receives its own clones. Loads are admitted within the global and per-guild limits,
+     * single tracks and searches ahead of playlists.</p>
+     *
+     * @param identifier The identifier to pass to {@link AudioManager#AUDIO_PLAYER_MANAGER}.
+     * @param trackData The {@link AudioTrackData} of the requester.
+     */
+    public static void load(String identifier, AudioTrackData trackData) {
+        REQUESTED_LOADS.incrementAndGet();
+        AudioPlayerLoadResultHandler handler = new AudioPlayerLoadResultHandler(trackData);
+        String key = normalize(identifier);
+        Cache<String, LoadResult> cache = LoadManager.cache;
+        if (cache != null) {
+            LoadResult loadResult = getLoadResult(cache, key);
+            if (loadResult != null) {
+                loadResult.dispatch(handler);
+                return;
+            }
+        }
+        
+        synchronized (LOADS) {
+            Load load = LOADS.get(key);
+            if (load != null) {
+                load.handlers.add(handler);
+                COALESCED_LOADS.incrementAndGet();
+                return;
+            }
+            
+            Guild guild = trackData.getGuild();
+            load = new Load(key, identifier, guild != null ? guild.getIdLong() : 0L, isBulk(key));
+            load.handlers.add(handler);
+            LOADS.put(key, load);
+            getLoads(load).offer(load);
+            peakPendingLoads = Math.max(peakPendingLoads, INTERACTIVE_LOADS.size() + BULK_LOADS.size());
+        }
+        
+        drain();
+    }
+    
+    /**
+     * Cancels the loads requested from the provided {@link Guild}.
+     *
+     * <p>Loads shared with other guilds continue for the remaining requesters.</p>
+     *
+     * @param guild The {@link Guild} to cancel loads for.
+     * @return The number of requests which were cancelled.
+     */
+    public static int cancel(Guild guild) {
+        int cancelled = 0;
+        synchronized (LOADS) {
+            Iterator<Load> iterator = LOADS.values().iterator();
+            while (iterator.hasNext()) {
+                Load load = iterator.next();
+                int size = load.handlers.size();
+                load.handlers.removeIf(handler -> handler.getTrackData().getGuild() != null && handler.getTrackData().getGuild().getIdLong() == guild.getIdLong());
+                cancelled += size - load.handlers.size();
+                if (!load.handlers.isEmpty()) {
+                    continue;
+                }
+                
+                iterator.remove();
+                load.done = true;
+                load.cancelled = true;
+                if (load.running) {
+                    if (load.future != null) {
+                        load.future.cancel(true);
+                    }
+                    
+                    release(load);
+                } else {
+                    getLoads(load).remove(load);
+                }
+            }
+        }
+        
+        CANCELLED_LOADS.addAndGet(cancelled);
+        drain();
+        return cancelled;
+    }
+    
+    /**
+     * Normalizes an identifier so equivalent requests share a cache entry.
+     *
+     * <p>The scheme and host of URLs are case-insensitive, the rest of the URL is left untouched as video ids are not.
+     * Search queries are case-insensitive and whitespace is collapsed.</p>
+     *
+     * @param identifier The identifier to normalize.
+     * @return The normalized identifier.
+     */
+    public static String normalize(String identifier) {
+        String string = identifier.trim();
+        int schemeIndex = string.indexOf("://");
+        if (schemeIndex != -1) {
+            int pathIndex = schemeIndex + 3;
+            while (pathIndex < string.length() && "/?#".indexOf(string.charAt(pathIndex)) == -1) {
+                pathIndex++;
+            }
+            
+            return string.substring(0, pathIndex).toLowerCase(Locale.ROOT) + string.substring(pathIndex);
+        }
+        
+        int prefixIndex = string.indexOf(':');
+        if (prefixIndex != -1 && string.substring(0, prefixIndex).endsWith("search")) {
+            String query = string.substring(prefixIndex + 1).trim().replaceAll("\\s+", " ");
+            return string.substring(0, prefixIndex).toLowerCase(Locale.ROOT) + ": " + query.toLowerCase(Locale.ROOT);
+        }
+        
+        return string;
+    }
+    
+    /**
+     * Restores the persisted cache, entries older than the expiry are skipped.
+     */
+    public static void restoreCache() {
+        Cache<String, LoadResult> cache = LoadManager.cache;
+        Path path = getPath();
+        if (cache == null || !isPersistent() || !Files.exists(path)) {
+            return;
+        }
+        
+        long expiry = DiscordMusic.getInstance().getConfig().map(Config::getGeneralCategory).map(GeneralCategory::getLoadCacheExpiry).orElse(GeneralCategory.DEFAULT_LOAD_CACHE_EXPIRY);
+        int entries = 0;
+        try (DataInputStream inputStream = new DataInputStream(new BufferedInputStream(Files.newInputStream(path)))) {
+            if (inputStream.readInt() != CACHE_VERSION) {
+                DiscordMusic.getInstance().getLogger().warn("Load cache version mismatch, discarding {}", path);
+                return;
+            }
+            
+            int size = inputStream.readInt();
+            for (int index = 0; index < size; index++) {
+                String key = inputStream.readUTF();
+                long creationTime = inputStream.readLong();
+                String name = inputStream.readBoolean() ? inputStream.readUTF() : null;
+                int selectedIndex = inputStream.readInt();
+                boolean playlist = inputStream.readBoolean();
+                boolean searchResult = inputStream.readBoolean();
+                int trackCount = inputStream.readInt();
+                List<AudioTrack> tracks = Lists.newArrayListWithCapacity(trackCount);
+                for (int trackIndex = 0; trackIndex < trackCount; trackIndex++) {
+                    byte[] bytes = new byte[inputStream.readInt()];
+                    inputStream.readFully(bytes);
+                    DecodedTrackHolder trackHolder = AudioManager.AUDIO_PLAYER_MANAGER.decodeTrack(new MessageInput(new ByteArrayInputStream(bytes)));
+                    if (trackHolder != null && trackHolder.decodedTrack != null) {
+                        tracks.add(trackHolder.decodedTrack);
+                    }
+                }
+                
+                if (tracks.isEmpty() || System.currentTimeMillis() - creationTime >= expiry) {
+                    continue;
+                }
+                
+                cache.put(key, new LoadResult(name, tracks, selectedIndex, playlist, searchResult, creationTime));
+                entries++;
+            }
+        } catch (Exception ex) {
+            DiscordMusic.getInstance().getLogger().error("Encountered an error while restoring load cache", ex);
+        }
+        
+        DiscordMusic.getInstance().getLogger().info("Restored {} load cache entries", entries);
+    }
+    
+    /**
+     * Writes the cache to a temporary file which atomically replaces the previous copy.
+     */
+    public static void saveCache() {
+        Cache<String, LoadResult> cache = LoadManager.cache;
+        if (cache == null || !isPersistent()) {
+            return;
+        }
+        
+        Path path = getPath();
+        Path temporaryPath = path.resolveSibling(path.getFileName() + ".tmp");
+        try {
+            Files.createDirectories(path.getParent());
+            try (DataOutputStream outputStream = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(temporaryPath)))) {
+                Map<String, LoadResult> entries = cache.asMap();
+                outputStream.writeInt(CACHE_VERSION);
+                outputStream.writeInt(entries.size());
+                for (Map.Entry<String, LoadResult> entry : entries.entrySet()) {
+                    LoadResult loadResult = entry.getValue();
+                    outputStream.writeUTF(entry.getKey());
+                    outputStream.writeLong(loadResult.getCreationTime());
+                    outputStream.writeBoolean(loadResult.getName() != null);
+                    if (loadResult.getName() != null) {
+                        outputStream.writeUTF(loadResult.getName());
+                    }
+                    
+                    outputStream.writeInt(loadResult.getSelectedIndex());
+                    outputStream.writeBoolean(loadResult.isPlaylist());
+                    outputStream.writeBoolean(loadResult.isSearchResult());
+                    outputStream.writeInt(loadResult.getTracks().size());
+                    for (AudioTrack audioTrack : loadResult.getTracks()) {
+                        ByteArrayOutputStream trackOutput = new ByteArrayOutputStream();
+                        AudioManager.AUDIO_PLAYER_MANAGER.encodeTrack(new MessageOutput(trackOutput), audioTrack);
+                        outputStream.writeInt(trackOutput.size());
+                        trackOutput.writeTo(outputStream);
+                    }
+                }
+            }
+            
+            Files.move(temporaryPath, path, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } catch (Exception ex) {
+            DiscordMusic.getInstance().getLogger().error("Encountered an error while saving load cache", ex);
+        }
+    }
+    
+    /**
+     * Starts pending loads until the global limit is reached, interactive loads first.
+     *
+     * <p>Loads from a guild which is at its own limit are skipped so they cannot hold up other guilds.
+     * Loads are submitted after the lock is released, a rejected load completes through its handler which drains again.</p>
+     */
+    private static void drain() {
+        GeneralCategory generalCategory = DiscordMusic.getInstance().getConfig().map(Config::getGeneralCategory).orElse(null);
+        int maxLoads = generalCategory != null ? generalCategory.getMaxLoads() : GeneralCategory.DEFAULT_MAX_LOADS;
+        int maxGuildLoads = generalCategory != null ? generalCategory.getMaxGuildLoads() : GeneralCategory.DEFAULT_MAX_GUILD_LOADS;
+        List<Load> loads = Lists.newArrayList();
+        synchronized (LOADS) {
+            while (activeLoads < maxLoads) {
+                Load load = poll(INTERACTIVE_LOADS, maxGuildLoads);
+                if (load == null) {
+                    load = poll(BULK_LOADS, maxGuildLoads);
+                }
+                
+                if (load == null) {
+                    break;
+                }
+                
+                activeLoads++;
+                GUILD_LOADS.merge(load.guildId, 1, Integer::sum);
+                load.running = true;
+                STARTED_LOADS.incrementAndGet();
+                WAIT_TIME.addAndGet(System.currentTimeMillis() - load.creationTime);
+                loads.add(load);
+            }
+        }
+        
+        for (Load load : loads) {
+            Future<Void> future = AudioManager.AUDIO_PLAYER_MANAGER.loadItem(load.identifier, new LoadResultHandler(load));
+            synchronized (LOADS) {
+                if (load.cancelled) {
+                    // Cancelled before the future was available
+                    future.cancel(true);
+                } else {
+                    load.future = future;
+                }
+            }
+        }
+    }
+    
+    private static Load poll(Deque<Load> loads, int maxGuildLoads) {
+        Iterator<Load> iterator = loads.iterator();
+        while (iterator.hasNext()) {
+            Load load = iterator.next();
+            if (GUILD_LOADS.getOrDefault(load.guildId, 0) < maxGuildLoads) {
+                iterator.remove();
+                return load;
+            }
+        }
+        
+        return null;
+    }
+    
+    private static void release(Load load) {
+        if (!load.running) {
+            return;
+        }
+        
+        load.running = false;
+        activeLoads--;
+        GUILD_LOADS.computeIfPresent(load.guildId, (key, value) -> value > 1 ? value - 1 : null);
+    }
+    
+    /**
+     * Removes the in-flight load, caching the result before any later request can miss it.
+     *
+     * @param load The {@link Load} which completed.
+     * @param loadResult The {@link LoadResult} to cache, or {@code null} if the load did not succeed.
+     * @return The handlers waiting on the load, empty if it was cancelled.
+     */
+    private static List<AudioPlayerLoadResultHandler> complete(Load load, LoadResult loadResult) {
+        List<AudioPlayerLoadResultHandler> handlers;
+        synchronized (LOADS) {
+            if (load.done) {
+                return Collections.emptyList();
+            }
+            
+            load.done = true;
+            Cache<String, LoadResult> cache = LoadManager.cache;
+            if (cache != null && loadResult != null) {
+                cache.put(load.key, loadResult);
+            }
+            
+            LOADS.remove(load.key, load);
+            release(load);
+            handlers = load.handlers;
+        }
+        
+        drain();
+        return handlers;
+    }
+    
+    private static void dispatch(List<AudioPlayerLoadResultHandler> handlers, Consumer<AudioLoadResultHandler> consumer) {
+        for (AudioLoadResultHandler handler : handlers) {
+            try {
+                consumer.accept(handler);
+            } catch (Exception ex) {
+                DiscordMusic.getInstance().getLogger().error("Encountered an error while dispatching load result", ex);
+            }
+        }
+    }
+    
+    private static LoadResult getLoadResult(Cache<String, LoadResult> cache, String key) {
+        LoadResult loadResult = cache.getIfPresent(key);
+        if (loadResult == null) {
+            return null;
+        }
+        
+        // Restored entries keep their original age
+        long expiry = DiscordMusic.getInstance().getConfig().map(Config::getGeneralCategory).map(GeneralCategory::getLoadCacheExpiry).orElse(GeneralCategory.DEFAULT_LOAD_CACHE_EXPIRY);
+        if (System.currentTimeMillis() - loadResult.getCreationTime() >= expiry) {
+            cache.invalidate(key);
+            return null;
+        }
+        
+        return loadResult;
+    }
+    
+    private static Deque<Load> getLoads(Load load) {
+        return load.bulk ? BULK_LOADS : INTERACTIVE_LOADS;
+    }
+    
+    /**
+     * Playlists are resolved in the bulk lane, they can take many requests and should not delay single tracks.
+     */
+    private static boolean isBulk(String key) {
+        return key.contains("list=") || key.contains("/playlist") || key.contains("/sets/") || key.contains("/album");
+    }
+    
+    private static boolean isPersistent() {
+        return DiscordMusic.getInstance().getConfig().map(Config::getGeneralCategory).map(GeneralCategory::isPersistLoadCache).orElse(false);
+    }
+    
+    private static Path getPath() {
+        return Toolbox.getPath().resolve("cache").resolve("loads.dat");
+    }
+    
+    public static long getRequestedLoads() {
+        return REQUESTED_LOADS.get();
+    }
+    
+    public static long getCoalescedLoads() {
+        return COALESCED_LOADS.get();
+    }
+    
+    public static long getStartedLoads() {
+        return STARTED_LOADS.get();
+    }
+    
+    public static long getCancelledLoads() {
+        return CANCELLED_LOADS.get();
+    }
+    
+    public static long getWaitTime() {
+        return WAIT_TIME.get();
+    }
+    
+    public static int getActiveLoads() {
+        synchronized (LOADS) {
+            return activeLoads;
+        }
+    }
+    
+    public static int getInteractiveLoads() {
+        synchronized (LOADS) {
+            return INTERACTIVE_LOADS.size();
+        }
+    }
+    
+    public static int getBulkLoads() {
+        synchronized (LOADS) {
+            return BULK_LOADS.size();
+        }
+    }
+    
+    public static int getPeakPendingLoads() {
+        synchronized (LOADS) {
+            return peakPendingLoads;
+        }
+    }
+    
+    public static long getCacheSize() {
+        Cache<String, LoadResult> cache = LoadManager.cache;
+        return cache != null ? cache.size() : 0L;
+    }
+    
+    public static CacheStats getCacheStats() {
+        Cache<String, LoadResult> cache = LoadManager.cache;
+        return cache != null ? cache.stats() : null;
+    }
+    
+    private static final class Load {
+        
+        private final String key;
+        private final String identifier;
+        private final long guildId;
+        private final boolean bulk;
+        private final long creationTime;
+        private final List<AudioPlayerLoadResultHandler> handlers;
+        private Future<Void> future;
+        private boolean running;
+        private boolean done;
+        private boolean cancelled;
+        
+        private Load(String key, String identifier, long guildId, boolean bulk) {
+            this.key = key;
+            this.identifier = identifier;
+            this.guildId = guildId;
+            this.bulk = bulk;
+            this.creationTime = System.currentTimeMillis();
+            this.handlers = Lists.newArrayList();
+        }
+    }
+    
+    private static final class LoadResultHandler implements AudioLoadResultHandler {
+        
+        private final Load load;
+        
+        private LoadResultHandler(Load load) {
+            this.load = load;
+        }
+        
+        @Override
+        public void trackLoaded(AudioTrack track) {
+            LoadResult loadResult = LoadResult.of(track);
+            
+            // Live streams are shared with current requesters but not cached
+            dispatch(complete(load, track.getInfo().isStream ? null : loadResult), loadResult::dispatch);
+        }
+        
+        @Override
+        public void playlistLoaded(AudioPlaylist playlist) {
+            LoadResult loadResult = LoadResult.of(playlist);
+            dispatch(complete(load, loadResult), loadResult::dispatch);
+        }
+        
+        @Override
+        public void noMatches() {
+            dispatch(complete(load, null), AudioLoadResultHandler::noMatches);
+        }
+        
+        @Override
+        public void loadFailed(FriendlyException exception) {
+            dispatch(complete(load, null), handler -> handler.loadFailed(exception));
+        }
+    }
+}
\ No newline at end of file
@@ -17,50 +17,101 @@
 package io.github.lxgaming.discordmusic.manager;
 
 import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
 import io.github.lxgaming.discordmusic.DiscordMusic;
 import io.github.lxgaming.discordmusic.configuration.Config;
+import io.github.lxgaming.discordmusic.configuration.ConfigSnapshot;
 import io.github.lxgaming.discordmusic.configuration.category.MessageCategory;
 import io.github.lxgaming.discordmusic.entity.Color;
 import io.github.lxgaming.discordmusic.entity.Emote;
+import io.github.lxgaming.discordmusic.entity.MessageQueue;
+import io.github.lxgaming.discordmusic.entity.TemporaryMessage;
+import io.github.lxgaming.discordmusic.entity.TimerWheel;
+import io.github.lxgaming.discordmusic.util.Toolbox;
 import net.dv8tion.jda.api.EmbedBuilder;
+import net.dv8tion.jda.api.JDA;
 import net.dv8tion.jda.api.MessageBuilder;
+import net.dv8tion.jda.api.Permission;
 import net.dv8tion.jda.api.entities.Message;
 import net.dv8tion.jda.api.entities.MessageChannel;
 import net.dv8tion.jda.api.entities.MessageEmbed;
 import net.dv8tion.jda.api.entities.Role;
+import net.dv8tion.jda.api.entities.TextChannel;
 import net.dv8tion.jda.api.exceptions.InsufficientPermissionException;
+import net.dv8tion.jda.api.utils.TimeUtil;
 import net.dv8tion.jda.internal.entities.DataMessage;
 import org.apache.commons.lang3.math.NumberUtils;
 import org.apache.commons.text.StringEscapeUtils;
 
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
 import java.util.Collection;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.function.Consumer;
 
 public final class MessageManager {
     
     public static final String DEFAULT_COLOR = "#7289DA"; // Blurple
     public static final String DEFAULT_EMOTE = "\\u2753"; // ?
-    public static final List<Message> MESSAGES = Lists.newCopyOnWriteArrayList();
+    public static final long DELETE_TICK = 250L; // 250 Milliseconds
+    private static final TimerWheel<TemporaryMessage> MESSAGES = new TimerWheel<>(DELETE_TICK, 512, System.currentTimeMillis());
+    private static final Map<Long, Integer> CHANNEL_MESSAGES = Maps.newHashMap();
+    private static final byte ADD = 1;
+    private static final byte REMOVE = 2;
+    private static final int COMPACT_THRESHOLD = 1000; // Records
+    private static final ByteArrayOutputStream PENDING = new ByteArrayOutputStream();
+    private static final DataOutputStream PENDING_OUTPUT = new DataOutputStream(PENDING);
+    private static final Object REGISTRY_LOCK = new Object();
+    private static final int BULK_DELETE_LIMIT = 100;
+    private static final long BULK_DELETE_AGE = TimeUnit.DAYS.toMillis(14L) - TimeUnit.MINUTES.toMillis(1L); // Leave room for clock drift
+    private static final AtomicLong BULK_DELETE_REQUESTS = new AtomicLong();
+    private static final AtomicLong BULK_DELETED_MESSAGES = new AtomicLong();
+    private static final AtomicLong DELETE_REQUESTS = new AtomicLong();
+    private static final long COALESCE_WINDOW = 100L; // 100 Milliseconds
+    private static final long SHUTDOWN_TIMEOUT = 5000L; // 5 Seconds
+    private static final Map<Long, MessageQueue> MESSAGE_QUEUES = Maps.newConcurrentMap();
+    private static final AtomicInteger QUEUED_MESSAGES = new AtomicInteger();
+    private static final AtomicLong SENT_MESSAGES = new AtomicLong();
+    private static final AtomicLong COALESCED_MESSAGES = new AtomicLong();
+    private static final AtomicLong SEND_TIME = new AtomicLong();
+    private static int records;
     
     public static void prepare() {
         MessageCategory messageCategory = DiscordMusic.getInstance().getConfig().map(Config::getMessageCategory).orElseThrow(NullPointerException::new);
-        messageCategory.getColors().putIfAbsent(Color.ERROR, "#C13737");
-        messageCategory.getColors().putIfAbsent(Color.SUCCESS, "#46A84B");
-        messageCategory.getColors().putIfAbsent(Color.WARNING, "#EAA245");
-        
-        for (Color color : Color.values()) {
-            messageCategory.getColors().putIfAbsent(color, DEFAULT_COLOR);
+        synchronized (DiscordMusic.getInstance().getConfiguration().getLock()) {
+            messageCategory.getColors().putIfAbsent(Color.ERROR, "#C13737");
+            messageCategory.getColors().putIfAbsent(Color.SUCCESS, "#46A84B");
+            messageCategory.getColors().putIfAbsent(Color.WARNING, "#EAA245");
+            
+            for (Color color : Color.values()) {
+                messageCategory.getColors().putIfAbsent(color, DEFAULT_COLOR);
+            }
+            
+            // https://getemoji.com/
+            // https://r12a.github.io/app-conversion/
+            messageCategory.getEmotes().putIfAbsent(Emote.ACCEPT, "\\u2705");
+            messageCategory.getEmotes().putIfAbsent(Emote.DECLINE, "\\u274C");
+            
+            for (Emote emote : Emote.values()) {
+                messageCategory.getEmotes().putIfAbsent(emote, DEFAULT_EMOTE);
+            }
         }
         
-        // https://getemoji.com/
-        // https://r12a.github.io/app-conversion/
-        messageCategory.getEmotes().putIfAbsent(Emote.ACCEPT, "\\u2705");
-        messageCategory.getEmotes().putIfAbsent(Emote.DECLINE, "\\u274C");
-        
-        for (Emote emote : Emote.values()) {
-            messageCategory.getEmotes().putIfAbsent(emote, DEFAULT_EMOTE);
-        }
+        DiscordMusic.getInstance().getConfiguration().updateSnapshot();
     }
     
     public static EmbedBuilder createErrorEmbed(String message) {
@@ -76,11 +127,26 @@ public final class MessageManager {
     }
     
     public static void sendTemporaryMessage(MessageChannel channel, Message message) {
-        sendMessage(channel, message, success -> {
-            if (DiscordMusic.getInstance().getConfig().map(Config::getMessageCategory).map(MessageCategory::isDeleteMessages).orElse(false)) {
-                MESSAGES.add(success);
-            }
-        });
+        queueMessage(channel, new MessageQueue.Entry(message, false, true, null, null));
+    }
+    
+    public static void sendTemporaryMessage(MessageChannel channel, MessageEmbed messageEmbed, Consumer<Message> success) {
+        sendTemporaryMessage(channel, new MessageBuilder().setEmbeds(messageEmbed).build(), success);
+    }
+    
+    public static void sendTemporaryMessage(MessageChannel channel, Message message, Consumer<Message> success) {
+        queueMessage(channel, new MessageQueue.Entry(message, false, true, success, null));
+    }
+    
+    /**
+     * Sends the error ahead of any informational messages queued for the channel.
+     */
+    public static void sendTemporaryErrorMessage(MessageChannel channel, MessageEmbed messageEmbed) {
+        queueMessage(channel, new MessageQueue.Entry(new MessageBuilder().setEmbeds(messageEmbed).build(), true, true, null, null));
+    }
+    
+    public static void sendErrorMessage(MessageChannel channel, MessageEmbed messageEmbed) {
+        queueMessage(channel, new MessageQueue.Entry(new MessageBuilder().setEmbeds(messageEmbed).build(), true, false, null, null));
     }
     
     public static void sendMessage(MessageChannel channel, MessageEmbed messageEmbed) {
@@ -88,38 +154,131 @@ public final class MessageManager {
     }
     
     public static void sendMessage(MessageChannel channel, Message message) {
-        sendMessage(channel, message, success -> {
-        });
+        queueMessage(channel, new MessageQueue.Entry(message, false, false, null, null));
     }
     
     public static void sendMessage(MessageChannel messageChannel, Message message, Consumer<Message> success) {
-        sendMessage(messageChannel, message, success, failure -> DiscordMusic.getInstance().getLogger().error("Encountered an error while sending message", failure));
+        queueMessage(messageChannel, new MessageQueue.Entry(message, false, false, success, null));
     }
     
     public static void sendMessage(MessageChannel messageChannel, Message message, Consumer<Message> success, Consumer<Throwable> failure) {
+        queueMessage(messageChannel, new MessageQueue.Entry(message, false, false, success, failure));
+    }
+    
+    /**
+     * Queues the message behind the channel's in-flight send, a flush is scheduled once the coalesce window has passed if the channel was idle.
+     */
+    private static void queueMessage(MessageChannel channel, MessageQueue.Entry entry) {
+        QUEUED_MESSAGES.incrementAndGet();
+        MESSAGE_QUEUES.compute(channel.getIdLong(), (key, value) -> {
+            MessageQueue messageQueue = value != null ? value : new MessageQueue(channel);
+            if (messageQueue.offer(entry)) {
+                TaskManager.SCHEDULED_EXECUTOR_SERVICE.schedule(() -> flushQueue(messageQueue), COALESCE_WINDOW, TimeUnit.MILLISECONDS);
+            }
+            
+            return messageQueue;
+        });
+    }
+    
+    /**
+     * Sends the next batch of the queue, the following batch is sent once this one completes so a rate limited channel accumulates rather than bursts.
+     */
+    private static void flushQueue(MessageQueue messageQueue) {
+        List<MessageQueue.Entry> entries = messageQueue.poll();
+        if (entries.isEmpty()) {
+            // Offers run under the same map entry, a queue which was reactivated since it was polled is kept
+            MESSAGE_QUEUES.computeIfPresent(messageQueue.getChannel().getIdLong(), (key, value) -> value == messageQueue && !messageQueue.isActive() ? null : value);
+            return;
+        }
+        
+        QUEUED_MESSAGES.addAndGet(-entries.size());
+        Message message;
+        if (entries.size() == 1) {
+            message = entries.get(0).getMessage();
+        } else {
+            List<MessageEmbed> messageEmbeds = Lists.newArrayList();
+            for (MessageQueue.Entry entry : entries) {
+                messageEmbeds.addAll(entry.getMessage().getEmbeds());
+            }
+            
+            message = new MessageBuilder().setEmbeds(messageEmbeds).build();
+            COALESCED_MESSAGES.addAndGet(entries.size() - 1);
+        }
+        
+        Consumer<Message> success = sentMessage -> {
+            completeMessages(entries);
+            ConfigSnapshot snapshot = DiscordMusic.getInstance().getConfiguration().getSnapshot();
+            if (entries.get(0).isTemporary() && snapshot != null && snapshot.isDeleteMessages()) {
+                addTemporaryMessage(sentMessage);
+            }
+            
+            for (MessageQueue.Entry entry : entries) {
+                if (entry.getSuccess() != null) {
+                    entry.getSuccess().accept(sentMessage);
+                }
+            }
+            
+            flushQueue(messageQueue);
+        };
+        
+        Consumer<Throwable> failure = throwable -> {
+            completeMessages(entries);
+            for (MessageQueue.Entry entry : entries) {
+                if (entry.getFailure() != null) {
+                    entry.getFailure().accept(throwable);
+                } else {
+                    DiscordMusic.getInstance().getLogger().error("Encountered an error while sending message", throwable);
+                }
+            }
+            
+            flushQueue(messageQueue);
+        };
+        
         try {
-            messageChannel.sendMessage(message).queue(success, failure);
+            messageQueue.getChannel().sendMessage(message).queue(success, failure);
         } catch (IllegalArgumentException | InsufficientPermissionException | UnsupportedOperationException ex) {
             failure.accept(ex);
         }
     }
     
+    private static void completeMessages(List<MessageQueue.Entry> entries) {
+        long currentTime = System.nanoTime();
+        for (MessageQueue.Entry entry : entries) {
+            SEND_TIME.addAndGet(currentTime - entry.getQueueTime());
+        }
+        
+        SENT_MESSAGES.addAndGet(entries.size());
+    }
+    
+    /**
+     * Waits for every queue to drain through its own flushes, so each channel keeps a single send in flight.
+     *
+     * <p>Queues are removed once they become idle, when the map is empty every queued message has completed.</p>
+     */
+    public static void shutdown() {
+        long deadline = System.currentTimeMillis() + SHUTDOWN_TIMEOUT;
+        while (!MESSAGE_QUEUES.isEmpty() && System.currentTimeMillis() < deadline) {
+            try {
+                Thread.sleep(COALESCE_WINDOW);
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+                break;
+            }
+        }
+        
+        if (!MESSAGE_QUEUES.isEmpty()) {
+            DiscordMusic.getInstance().getLogger().warn("{} message queues did not drain before shutdown", MESSAGE_QUEUES.size());
+        }
+    }
+    
     public static int getColor(Color color) {
-        return DiscordMusic.getInstance().getConfig()
-                .map(Config::getMessageCategory)
-                .map(MessageCategory::getColors)
-                .map(colors -> colors.get(color))
-                .map(NumberUtils::createInteger)
-                .orElse(Role.DEFAULT_COLOR_RAW);
+        ConfigSnapshot snapshot = DiscordMusic.getInstance().getConfiguration().getSnapshot();
+        return snapshot != null ? snapshot.getColor(color) : Role.DEFAULT_COLOR_RAW;
     }
     
     public static String getEmote(Emote emote) {
-        return DiscordMusic.getInstance().getConfig()
-                .map(Config::getMessageCategory)
-                .map(MessageCategory::getEmotes)
-                .map(emotes -> emotes.get(emote))
-                .map(StringEscapeUtils::unescapeJava)
-                .orElse(DEFAULT_EMOTE);
+        ConfigSnapshot snapshot = DiscordMusic.getInstance().getConfiguration().getSnapshot();
+        return snapshot != null ? snapshot.getEmote(emote) : StringEscapeUtils.unescapeJava(DEFAULT_EMOTE);
     }
     
     public static String getMessageContent(Message message) {
@@ -130,7 +289,380 @@ public final class MessageManager {
         return message.getContentDisplay();
     }
     
-    public static void removeMessages(Collection<String> messages) {
-        MESSAGES.removeIf(message -> messages.contains(message.getId()));
+    /**
+     * Schedules the message to be deleted once the delete interval has elapsed since it was created.
+     */
+    public static void addTemporaryMessage(Message message) {
+        addTemporaryMessage(message, message.getTimeCreated().toInstant().toEpochMilli());
+    }
+    
+    /**
+     * Schedules the message to be deleted once the delete interval has elapsed since the provided time, replacing any existing schedule.
+     *
+     * @param message The {@link Message} to delete.
+     * @param time The time in milliseconds the delete interval is measured from.
+     */
+    public static void addTemporaryMessage(Message message, long time) {
+        if (message.getIdLong() == 0L) {
+            return;
+        }
+        
+        long deleteInterval = DiscordMusic.getInstance().getConfig()
+                .map(Config::getMessageCategory)
+                .map(MessageCategory::getDeleteInterval)
+                .orElse(0L);
+        addTemporaryMessage(new TemporaryMessage(message.getChannel().getIdLong(), message.getIdLong(), time + deleteInterval));
+    }
+    
+    private static synchronized void addTemporaryMessage(TemporaryMessage message) {
+        schedule(message);
+        writeAdd(message);
+    }
+    
+    /**
+     * Deletes every temporary message which is due, called by {@link io.github.lxgaming.discordmusic.task.MessageTask MessageTask} once per tick.
+     *
+     * <p>Nothing is expired until JDA has connected, channels restored from the registry can only be resolved once the cache is ready.</p>
+     */
+    public static void deleteMessages() {
+        JDA jda = AccountManager.getJDA();
+        if (jda == null || jda.getStatus() != JDA.Status.CONNECTED) {
+            return;
+        }
+        
+        long currentTime = System.currentTimeMillis();
+        List<TemporaryMessage> messages = expireMessages(currentTime);
+        if (messages.isEmpty()) {
+            return;
+        }
+        
+        Map<Long, List<TemporaryMessage>> channelMessages = Maps.newHashMap();
+        for (TemporaryMessage message : messages) {
+            channelMessages.computeIfAbsent(message.getChannelId(), key -> Lists.newArrayList()).add(message);
+        }
+        
+        for (Map.Entry<Long, List<TemporaryMessage>> entry : channelMessages.entrySet()) {
+            MessageChannel channel = getChannel(jda, entry.getKey());
+            if (channel == null) {
+                // Already removed from the registry, the channel was deleted or is no longer visible
+                DiscordMusic.getInstance().getLogger().warn("Dropping {} temporary messages in unknown channel {}", entry.getValue().size(), entry.getKey());
+                continue;
+            }
+            
+            if (!canBulkDelete(channel)) {
+                entry.getValue().forEach(message -> deleteMessage(channel, message.getMessageId()));
+                continue;
+            }
+            
+            // Discord rejects bulk deletes containing messages older than 14 days
+            List<String> ids = Lists.newArrayList();
+            for (TemporaryMessage message : entry.getValue()) {
+                if (currentTime - TimeUtil.getTimeCreated(message.getMessageId()).toInstant().toEpochMilli() < BULK_DELETE_AGE) {
+                    ids.add(Long.toString(message.getMessageId()));
+                } else {
+                    deleteMessage(channel, message.getMessageId());
+                }
+            }
+            
+            for (List<String> partition : Lists.partition(ids, BULK_DELETE_LIMIT)) {
+                if (partition.size() == 1) {
+                    deleteMessage(channel, Long.parseLong(partition.get(0)));
+                    continue;
+                }
+                
+                BULK_DELETE_REQUESTS.incrementAndGet();
+                ((TextChannel) channel).deleteMessagesByIds(partition).queue(
+                        success -> {
+                            BULK_DELETED_MESSAGES.addAndGet(partition.size());
+                            DiscordMusic.getInstance().getLogger().debug("Successfully deleted {} messages in {}", partition.size(), channel.getIdLong());
+                        },
+                        failure -> DiscordMusic.getInstance().getLogger().error("Encountered an error deleting {} messages in {}", partition.size(), channel.getIdLong(), failure)
+                );
+            }
+        }
+    }
+    
+    private static synchronized List<TemporaryMessage> expireMessages(long currentTime) {
+        List<TemporaryMessage> messages = MESSAGES.advance(currentTime);
+        for (TemporaryMessage message : messages) {
+            release(message);
+            writeRemove(message.getMessageId());
+        }
+        
+        return messages;
+    }
+    
+    private static MessageChannel getChannel(JDA jda, long channelId) {
+        TextChannel textChannel = jda.getTextChannelById(channelId);
+        if (textChannel != null) {
+            return textChannel;
+        }
+        
+        return jda.getPrivateChannelById(channelId);
+    }
+    
+    private static boolean canBulkDelete(MessageChannel channel) {
+        if (!(channel instanceof TextChannel)) {
+            return false;
+        }
+        
+        TextChannel textChannel = (TextChannel) channel;
+        return textChannel.getGuild().getSelfMember().hasPermission(textChannel, Permission.MESSAGE_MANAGE);
+    }
+    
+    private static void deleteMessage(MessageChannel channel, long id) {
+        DELETE_REQUESTS.incrementAndGet();
+        channel.deleteMessageById(id).queue(
+                success -> DiscordMusic.getInstance().getLogger().debug("Successfully deleted Message {}", id),
+                failure -> DiscordMusic.getInstance().getLogger().error("Encountered an error deleting message {}", id, failure)
+        );
+    }
+    
+    /**
+     * Stops tracking the provided messages, each id is a single lookup in the wheel's index.
+     *
+     * @param channelId The id of the channel the messages were deleted from.
+     * @param messages The ids of the deleted messages.
+     */
+    public static synchronized void removeMessages(long channelId, Collection<String> messages) {
+        // Purges in channels without temporary messages are common, avoid parsing their ids
+        if (!CHANNEL_MESSAGES.containsKey(channelId)) {
+            return;
+        }
+        
+        for (String message : messages) {
+            long id = NumberUtils.toLong(message);
+            if (id != 0L) {
+                removeMessage(id);
+            }
+        }
+    }
+    
+    public static synchronized void removeMessage(long id) {
+        TemporaryMessage message = MESSAGES.cancel(id);
+        if (message != null) {
+            release(message);
+            writeRemove(id);
+        }
+    }
+    
+    /**
+     * Schedules the message, replacing any existing schedule, and counts it against its channel.
+     */
+    private static void schedule(TemporaryMessage message) {
+        TemporaryMessage previousMessage = MESSAGES.cancel(message.getMessageId());
+        if (previousMessage != null) {
+            release(previousMessage);
+        }
+        
+        MESSAGES.schedule(message.getMessageId(), message, message.getDeadline());
+        CHANNEL_MESSAGES.merge(message.getChannelId(), 1, Integer::sum);
+    }
+    
+    private static void release(TemporaryMessage message) {
+        CHANNEL_MESSAGES.computeIfPresent(message.getChannelId(), (key, value) -> value > 1 ? value - 1 : null);
+    }
+    
+    /**
+     * Restores the temporary messages recorded by the registry, messages which expired while offline are deleted on the next tick.
+     */
+    public static void restoreMessages() {
+        Path path = getPath();
+        if (!Files.exists(path)) {
+            return;
+        }
+        
+        synchronized (REGISTRY_LOCK) {
+            restoreMessages(path);
+        }
+    }
+    
+    private static void restoreMessages(Path path) {
+        Map<Long, TemporaryMessage> messages = Maps.newHashMap();
+        int restoredRecords = 0;
+        try (DataInputStream inputStream = new DataInputStream(new BufferedInputStream(Files.newInputStream(path)))) {
+            while (true) {
+                byte type;
+                try {
+                    type = inputStream.readByte();
+                } catch (EOFException ex) {
+                    break;
+                }
+                
+                if (type == ADD) {
+                    TemporaryMessage message = new TemporaryMessage(inputStream.readLong(), inputStream.readLong(), inputStream.readLong());
+                    messages.put(message.getMessageId(), message);
+                } else if (type == REMOVE) {
+                    messages.remove(inputStream.readLong());
+                } else {
+                    DiscordMusic.getInstance().getLogger().warn("Message registry contains an unknown record {} after {} records", type, restoredRecords);
+                    break;
+                }
+                
+                restoredRecords++;
+            }
+        } catch (EOFException ex) {
+            // The final record was only partially written before the process stopped
+            DiscordMusic.getInstance().getLogger().warn("Message registry ends with a truncated record after {} records", restoredRecords);
+        } catch (Exception ex) {
+            DiscordMusic.getInstance().getLogger().error("Encountered an error while restoring message registry", ex);
+        }
+        
+        synchronized (MessageManager.class) {
+            for (TemporaryMessage message : messages.values()) {
+                schedule(message);
+            }
+        }
+        
+        // Replace the replayed history with the live entries
+        flushMessages(true);
+        DiscordMusic.getInstance().getLogger().info("Restored {} temporary messages from {} records", messages.size(), restoredRecords);
+    }
+    
+    /**
+     * Appends the pending registry records, the registry is rewritten from the live entries once removals dominate it.
+     *
+     * <p>The pending records are swapped out under the class monitor and written once it is released, sends and expiry never wait on the disk.</p>
+     */
+    public static void flushMessages() {
+        flushMessages(false);
+    }
+    
+    private static void flushMessages(boolean compact) {
+        synchronized (REGISTRY_LOCK) {
+            List<TemporaryMessage> messages = null;
+            byte[] bytes;
+            int previousRecords;
+            synchronized (MessageManager.class) {
+                previousRecords = records;
+                if (compact || (records >= COMPACT_THRESHOLD && records > MESSAGES.size() * 2)) {
+                    messages = MESSAGES.getValues();
+                    records = messages.size();
+                }
+                
+                bytes = PENDING.toByteArray();
+                PENDING.reset();
+            }
+            
+            if (messages != null) {
+                if (compactMessages(messages)) {
+                    return;
+                }
+                
+                // The previous registry is still in place, append the records it is missing instead
+                synchronized (MessageManager.class) {
+                    records += previousRecords - messages.size();
+                }
+            }
+            
+            if (bytes.length != 0) {
+                appendMessages(bytes);
+            }
+        }
+    }
+    
+    private static void appendMessages(byte[] bytes) {
+        Path path = getPath();
+        try {
+            Files.createDirectories(path.getParent());
+            try (OutputStream outputStream = Files.newOutputStream(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND)) {
+                outputStream.write(bytes);
+            }
+        } catch (Exception ex) {
+            DiscordMusic.getInstance().getLogger().error("Encountered an error while writing message registry", ex);
+        }
+    }
+    
+    /**
+     * Writes the live entries to a temporary file which atomically replaces the registry.
+     */
+    private static boolean compactMessages(List<TemporaryMessage> messages) {
+        Path path = getPath();
+        Path temporaryPath = path.resolveSibling(path.getFileName() + ".tmp");
+        try {
+            Files.createDirectories(path.getParent());
+            try (DataOutputStream outputStream = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(temporaryPath)))) {
+                for (TemporaryMessage message : messages) {
+                    outputStream.writeByte(ADD);
+                    outputStream.writeLong(message.getChannelId());
+                    outputStream.writeLong(message.getMessageId());
+                    outputStream.writeLong(message.getDeadline());
+                }
+            }
+            
+            Files.move(temporaryPath, path, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+            return true;
+        } catch (Exception ex) {
+            DiscordMusic.getInstance().getLogger().error("Encountered an error while compacting message registry", ex);
+            return false;
+        }
+    }
+    
+    private static void writeAdd(TemporaryMessage message) {
+        try {
+            PENDING_OUTPUT.writeByte(ADD);
+            PENDING_OUTPUT.writeLong(message.getChannelId());
+            PENDING_OUTPUT.writeLong(message.getMessageId());
+            PENDING_OUTPUT.writeLong(message.getDeadline());
+            records++;
+        } catch (IOException ex) {
+            DiscordMusic.getInstance().getLogger().error("Encountered an error while recording message {}", message.getMessageId(), ex);
+        }
+    }
+    
+    private static void writeRemove(long id) {
+        try {
+            PENDING_OUTPUT.writeByte(REMOVE);
+            PENDING_OUTPUT.writeLong(id);
+            records++;
+        } catch (IOException ex) {
+            DiscordMusic.getInstance().getLogger().error("Encountered an error while recording message {}", id, ex);
+        }
+    }
+    
+    private static Path getPath() {
+        return Toolbox.getPath().resolve("cache").resolve("messages.dat");
+    }
+    
+    public static int getTemporaryMessages() {
+        return MESSAGES.size();
+    }
+    
+    public static long getBulkDeleteRequests() {
+        return BULK_DELETE_REQUESTS.get();
+    }
+    
+    public static long getBulkDeletedMessages() {
+        return BULK_DELETED_MESSAGES.get();
+    }
+    
+    public static long getDeleteRequests() {
+        return DELETE_REQUESTS.get();
+    }
+    
+    public static int getQueuedMessages() {
+        return QUEUED_MESSAGES.get();
+    }
+    
+    public static long getSentMessages() {
+        return SENT_MESSAGES.get();
+    }
+    
+    public static long getCoalescedMessages() {
+        return COALESCED_MESSAGES.get();
+    }
+    
+    /**
+     * @return The total time in nanoseconds between queueing and completing each sent message.
+     */
+    public static long getSendTime() {
+        return SEND_TIME.get();
+    }
+    
+    /**
+     * @return The number of REST requests avoided by deleting messages in bulk.
+     */
+    public static long getSavedRequests() {
+        return Math.max(BULK_DELETED_MESSAGES.get() - BULK_DELETE_REQUESTS.get(), 0L);
     }
 }
\ No newline at end of file
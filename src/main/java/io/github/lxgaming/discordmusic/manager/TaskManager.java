@@ -42,6 +42,11 @@ public final class TaskManager {
             taskCategory.setShutdownTimeout(TaskCategory.DEFAULT_SHUTDOWN_TIMEOUT);
         }
         
+        if (taskCategory.getSaveDelay() < 0L) {
+            DiscordMusic.getInstance().getLogger().warn("SaveDelay is out of bounds. Resetting to {}", TaskCategory.DEFAULT_SAVE_DELAY);
+            taskCategory.setSaveDelay(TaskCategory.DEFAULT_SAVE_DELAY);
+        }
+        
         SCHEDULED_EXECUTOR_SERVICE.setCorePoolSize(taskCategory.getCorePoolSize());
     }
     
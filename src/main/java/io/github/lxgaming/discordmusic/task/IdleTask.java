@@ -0,0 +1,38 @@
+/*
+ * Copyright 2026 Alex Thomson
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.lxgaming.discordmusic.task;
+
+import io.github.lxgaming.common.task.Task;
+import io.github.lxgaming.discordmusic.manager.AudioManager;
+
+import java.util.concurrent.TimeUnit;
+
+public class IdleTask extends Task {
+    
+    @Override
+    public boolean prepare() {
+        interval(1L, TimeUnit.MINUTES);
+        type(Type.FIXED_DELAY);
+        return true;
+    }
+    
+    @Override
+    public void execute() throws Exception {
+        AudioManager.evict();
+        AudioManager.detectLeaks();
+    }
+}
@@ -17,50 +17,22 @@
 package io.github.lxgaming.discordmusic.task;
 
 import io.github.lxgaming.common.task.Task;
-import io.github.lxgaming.discordmusic.DiscordMusic;
-import io.github.lxgaming.discordmusic.configuration.Config;
-import io.github.lxgaming.discordmusic.configuration.category.MessageCategory;
 import io.github.lxgaming.discordmusic.manager.MessageManager;
 
-import java.time.Instant;
 import java.util.concurrent.TimeUnit;
 
 public class MessageTask extends Task {
     
     @Override
     public boolean prepare() {
-        interval(1L, TimeUnit.SECONDS);
+        interval(MessageManager.DELETE_TICK, TimeUnit.MILLISECONDS);
         type(Type.FIXED_DELAY);
         return true;
     }
     
     @Override
     public void execute() throws Exception {
-        Instant deleteTime = DiscordMusic.getInstance().getConfig()
-                .map(Config::getMessageCategory)
-                .map(MessageCategory::getDeleteInterval)
-                .map(deleteInterval -> Instant.now().minusMillis(deleteInterval))
-                .orElse(null);
-        if (deleteTime == null) {
-            DiscordMusic.getInstance().getLogger().warn("Failed to calculate delete time");
-            return;
-        }
-        
-        MessageManager.MESSAGES.removeIf(message -> {
-            if (message.getIdLong() == 0L) {
-                return true;
-            }
-            
-            if (message.getTimeCreated().toInstant().isAfter(deleteTime)) {
-                return false;
-            }
-            
-            message.delete().queue(
-                    success -> DiscordMusic.getInstance().getLogger().debug("Successfully deleted Message {}", message.getIdLong()),
-                    failure -> DiscordMusic.getInstance().getLogger().error("Encountered an error deleting message {}", message.getIdLong(), failure)
-            );
-            
-            return true;
-        });
+        MessageManager.deleteMessages();
+        MessageManager.flushMessages();
     }
 }
\ No newline at end of file
@@ -18,6 +18,10 @@ package io.github.lxgaming.discordmusic.util;
 
 import io.github.lxgaming.discordmusic.DiscordMusic;
 import io.github.lxgaming.discordmusic.manager.AccountManager;
+import io.github.lxgaming.discordmusic.manager.AudioManager;
+import io.github.lxgaming.discordmusic.manager.JournalManager;
+import io.github.lxgaming.discordmusic.manager.LoadManager;
+import io.github.lxgaming.discordmusic.manager.MessageManager;
 import io.github.lxgaming.discordmusic.manager.TaskManager;
 import org.apache.logging.log4j.LogManager;
 
@@ -27,7 +31,13 @@ public class ShutdownHook extends Thread {
     public void run() {
         Thread.currentThread().setName("Shutdown Thread");
         DiscordMusic.getInstance().getLogger().info("Shutting down...");
+        JournalManager.shutdown();
+        LoadManager.saveCache();
+        MessageManager.shutdown();
+        MessageManager.flushMessages();
         AccountManager.shutdown();
+        AudioManager.shutdown();
+        DiscordMusic.getInstance().getConfiguration().flushConfiguration();
         TaskManager.shutdown();
         LogManager.shutdown();
     }
@@ -23,6 +23,8 @@ import net.dv8tion.jda.api.entities.Role;
 import net.dv8tion.jda.api.entities.User;
 import net.dv8tion.jda.api.utils.MarkdownSanitizer;
 
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
 import java.net.MalformedURLException;
 import java.net.URL;
 import java.nio.file.Path;
@@ -33,6 +35,9 @@ import java.util.concurrent.TimeUnit;
 
 public class Toolbox {
     
+    private static final com.sun.management.ThreadMXBean THREAD_MX_BEAN = createThreadMXBean();
+    private static volatile long allocationOverhead = -1L;
+    
     /**
      * Removes non-printable characters (excluding new line and carriage return) in the provided {@link java.lang.String String}.
      *
@@ -179,6 +184,60 @@ public class Toolbox {
         }
     }
     
+    /**
+     * Returns the total number of bytes allocated by the current {@link java.lang.Thread Thread}.
+     *
+     * @return The allocated bytes, or -1 if allocation measurement is not supported.
+     */
+    public static long getAllocatedBytes() {
+        com.sun.management.ThreadMXBean threadMXBean = THREAD_MX_BEAN;
+        if (threadMXBean != null && threadMXBean.isThreadAllocatedMemoryEnabled()) {
+            return threadMXBean.getThreadAllocatedBytes(Thread.currentThread().getId());
+        }
+        
+        return -1L;
+    }
+    
+    /**
+     * Returns the bytes allocated by a pair of {@link #getAllocatedBytes()} calls with nothing between them.
+     *
+     * <p>The JVM allocates while sampling, this is subtracted from each measurement.
+     * Calibrated once from the smallest of repeated samples so warm-up allocations are excluded.</p>
+     *
+     * @return The allocated bytes, or 0 if allocation measurement is not supported.
+     */
+    public static long getAllocationOverhead() {
+        long allocationOverhead = Toolbox.allocationOverhead;
+        if (allocationOverhead != -1L) {
+            return allocationOverhead;
+        }
+        
+        allocationOverhead = Long.MAX_VALUE;
+        for (int index = 0; index < 1000; index++) {
+            long allocatedBytes = getAllocatedBytes();
+            if (allocatedBytes == -1L) {
+                return 0L;
+            }
+            
+            allocationOverhead = Math.min(getAllocatedBytes() - allocatedBytes, allocationOverhead);
+        }
+        
+        Toolbox.allocationOverhead = allocationOverhead;
+        return allocationOverhead;
+    }
+    
+    private static com.sun.management.ThreadMXBean createThreadMXBean() {
+        ThreadMXBean threadMXBean = ManagementFactory.getThreadMXBean();
+        if (threadMXBean instanceof com.sun.management.ThreadMXBean) {
+            com.sun.management.ThreadMXBean sunThreadMXBean = (com.sun.management.ThreadMXBean) threadMXBean;
+            if (sunThreadMXBean.isThreadAllocatedMemorySupported()) {
+                return sunThreadMXBean;
+            }
+        }
+        
+        return null;
+    }
+    
     public static Path getPath() {
         String userDir = System.getProperty("user.dir");
         if (StringUtils.isNotBlank(userDir)) {